@@ -0,0 +1,25 @@
+package com.example.demo;
+
+import com.example.demo.service.RateExportService;
+import com.example.demo.service.RateHistoryService;
+import com.example.demo.service.RateRevisions;
+import com.example.demo.service.RateSnapshotCache;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Scans only the API's own packages. The shared {@code service} package also holds worker beans from
+ * rates-core (lease, batch inserter), so the services the API needs are imported by name instead.
+ */
+@SpringBootApplication(scanBasePackages = {
+        "com.example.demo.controller",
+        "com.example.demo.config"
+})
+@Import({HelloController.class, RateHistoryService.class, RateSnapshotCache.class, RateExportService.class,
+        RateRevisions.class})
+public class RatesApiApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(RatesApiApplication.class, args);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.entity.RateRevision;
+import com.example.demo.repository.ExchangeRateRepository;
+import com.example.demo.repository.RateRevisionRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+
+/**
+ * Maps only the tables the read API queries. rates-core also holds the worker's lease, archive and
+ * quarantine entities; left out here, so {@code ddl-auto=update} never creates or alters them from the API.
+ */
+@Configuration
+@EnableJpaRepositories(
+        basePackageClasses = ExchangeRateRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                classes = {ExchangeRateRepository.class, RateRevisionRepository.class}))
+public class PersistenceConfig {
+
+    @Bean
+    public PersistenceManagedTypes persistenceManagedTypes() {
+        return PersistenceManagedTypes.of(ExchangeRate.class.getName(), RateRevision.class.getName());
+    }
+}
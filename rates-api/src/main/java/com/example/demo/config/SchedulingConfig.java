@@ -0,0 +1,13 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the polls that pick up rows the worker publishes: response cache invalidation and
+ * history appends.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
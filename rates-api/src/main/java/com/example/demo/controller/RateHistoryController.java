@@ -0,0 +1,217 @@
+package com.example.demo.controller;
+
+import com.example.demo.export.ExportFormat;
+import com.example.demo.history.AsOfRate;
+import com.example.demo.history.RateHistory;
+import com.example.demo.history.RateKind;
+import com.example.demo.history.RateStats;
+import com.example.demo.history.ScaledPrice;
+import com.example.demo.service.CurrencyRegistry;
+import com.example.demo.service.RateExportService;
+import com.example.demo.service.RateHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/rates/history")
+@RequiredArgsConstructor
+public class RateHistoryController {
+
+    private final RateHistoryService historyService;
+    private final RateExportService exportService;
+
+    /**
+     * Points of one currency and rate kind between two dates (inclusive), oldest first
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getSeries(
+            @RequestParam String currency,
+            @RequestParam(defaultValue = "TRANSFER_SELL") RateKind kind,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+
+        RateHistory history = historyService.getHistory();
+        String name = seriesName(history.currencies(), currency);
+        PointBuffer points = new PointBuffer();
+        if (name == null || !history.scan(name, kind, start.atStartOfDay(), end.plusDays(1).atStartOfDay(), points::add)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        LocalDateTime[] times = new LocalDateTime[points.size];
+        double[] values = new double[points.size];
+        for (int i = 0; i < points.size; i++) {
+            times[i] = RateHistory.toDateTime(points.seconds[i]);
+            values[i] = ScaledPrice.toDouble(points.prices[i]);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("currency", name);
+        body.put("kind", kind);
+        body.put("from", start);
+        body.put("to", end);
+        body.put("count", points.size);
+        body.put("times", times);
+        body.put("values", values);
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Count, min, max, mean, first and last of one currency and rate kind between two dates (inclusive)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<RateStats> getStats(
+            @RequestParam String currency,
+            @RequestParam(defaultValue = "TRANSFER_SELL") RateKind kind,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        RateHistory history = historyService.getHistory();
+        String name = seriesName(history.currencies(), currency);
+        Optional<RateStats> stats = name == null ? Optional.empty()
+                : history.stats(name, kind, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        return stats.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Rate in effect at one or more points in time, for the given currencies (all if none given),
+     * with the interval each rate was valid for. validTo is null while the rate is still current.
+     * Currencies may be given by NBE name or ISO code; 404 if any of them has no history.
+     */
+    @GetMapping("/as-of")
+    public ResponseEntity<List<Map<String, Object>>> getAsOf(
+            @RequestParam(required = false) List<String> currency,
+            @RequestParam(defaultValue = "TRANSFER_SELL") RateKind kind,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) List<LocalDateTime> at) {
+        RateHistory history = historyService.getHistory();
+        Set<String> known = history.currencies();
+        List<String> currencies = currency == null || currency.isEmpty() ? new ArrayList<>(known) : currency;
+        LocalDateTime[] times = at.toArray(new LocalDateTime[0]);
+
+        Map<String, AsOfRate[]> byCurrency = new LinkedHashMap<>();
+        for (String requested : currencies) {
+            String name = seriesName(known, requested);
+            Optional<AsOfRate[]> found = name == null ? Optional.empty() : history.asOf(name, kind, times);
+            if (found.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            byCurrency.put(name, found.get());
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Map.Entry<String, AsOfRate[]> series : byCurrency.entrySet()) {
+            String code = series.getKey();
+            AsOfRate[] found = series.getValue();
+            for (int i = 0; i < times.length; i++) {
+                AsOfRate rate = found[i];
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("currency", code);
+                entry.put("kind", kind);
+                entry.put("at", times[i]);
+                entry.put("rate", rate == null ? null : ScaledPrice.toDouble(rate.scaledPrice()));
+                entry.put("validFrom", rate == null ? null : RateHistory.toDateTime(rate.validFromSecond()));
+                entry.put("validTo", rate == null || rate.isOpen() ? null : RateHistory.toDateTime(rate.validToSecond()));
+                results.add(entry);
+            }
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Downloads the rows scraped between two dates (inclusive) as ARFF or columnar binary, streamed from
+     * the database. All currencies and all four rate kinds unless narrowed; currencies are resolved as in
+     * {@link #getSeries}, and an unknown one gives 404.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) List<String> currency,
+            @RequestParam(required = false) List<RateKind> kind,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ARFF") ExportFormat format) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        List<String> currencies;
+        if (currency == null || currency.isEmpty()) {
+            currencies = exportService.currenciesBetween(start, end);
+        } else {
+            Set<String> known = historyService.getHistory().currencies();
+            List<String> names = new ArrayList<>(currency.size());
+            for (String requested : currency) {
+                String name = seriesName(known, requested);
+                if (name == null) {
+                    return ResponseEntity.notFound().build();
+                }
+                names.add(name);
+            }
+            currencies = names.stream().distinct().toList();
+        }
+        List<RateKind> kinds = kind == null || kind.isEmpty()
+                ? List.of(RateKind.values()) : kind.stream().distinct().toList();
+
+        String fileName = "rates-" + from + "-" + to + "." + format.getExtension();
+        StreamingResponseBody body = out -> exportService.export(currencies, kinds, start, end, format, out);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Size of the in-memory history
+     */
+    @GetMapping("/info")
+    public ResponseEntity<Map<String, Object>> getInfo() {
+        RateHistory history = historyService.getHistory();
+        return ResponseEntity.ok(Map.of(
+                "currencies", history.currencies(),
+                "points", history.size(),
+                "estimatedBytes", history.estimatedBytes()
+        ));
+    }
+
+    /**
+     * The name the history keeps {@code currency} under: as given if it is a series name, otherwise
+     * the NBE name of an ISO code or differently cased name. Null if the currency is not mapped.
+     */
+    private static String seriesName(Set<String> known, String currency) {
+        return known.contains(currency) ? currency : CurrencyRegistry.canonicalName(currency);
+    }
+
+    private static final class PointBuffer {
+        long[] seconds = new long[256];
+        long[] prices = new long[256];
+        int size;
+
+        void add(long second, long price) {
+            if (size == seconds.length) {
+                seconds = Arrays.copyOf(seconds, size * 2);
+                prices = Arrays.copyOf(prices, size * 2);
+            }
+            seconds[size] = second;
+            prices[size] = price;
+            size++;
+        }
+    }
+}
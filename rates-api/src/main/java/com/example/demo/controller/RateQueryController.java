@@ -0,0 +1,78 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.RateSnapshot;
+import com.example.demo.service.RateSnapshotCache;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * Read endpoints, served from pre-serialized snapshots with strong ETags and optional gzip.
+ * Every response is {@code no-cache}: past days can still be rewritten by a replay or an import,
+ * and revalidating with the ETag costs a 304.
+ */
+@RestController
+@RequestMapping("/api/rates")
+public class RateQueryController {
+
+    private final RateSnapshotCache snapshots;
+
+    public RateQueryController(RateSnapshotCache snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * Get all exchange rates from database
+     */
+    @GetMapping
+    public ResponseEntity<byte[]> getRates(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return respond(snapshots.allRates(), CacheControl.noCache(), ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Get exchange rates for a specific date
+     */
+    @GetMapping("/by-date")
+    public ResponseEntity<byte[]> getRatesByDate(
+            @RequestParam(defaultValue = "0") int daysBack,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        LocalDate targetDate = LocalDate.now().minusDays(daysBack);
+        return respond(snapshots.ratesByDate(targetDate), CacheControl.noCache(), ifNoneMatch, acceptEncoding);
+    }
+
+    private ResponseEntity<byte[]> respond(RateSnapshot snapshot, CacheControl cacheControl,
+                                           String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String etag = gzip ? snapshot.gzipEtag() : snapshot.etag();
+
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+}
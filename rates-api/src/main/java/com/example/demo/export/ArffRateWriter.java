@@ -0,0 +1,106 @@
+package com.example.demo.export;
+
+import com.example.demo.history.RateKind;
+import com.example.demo.history.ScaledPrice;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes rows as a Weka ARFF file: {@code scraped_at} as a date attribute, {@code currency} as a nominal
+ * attribute listing the exported currencies, and one numeric attribute per rate kind. Rates the bank
+ * did not quote are written as {@code ?}.
+ */
+public class ArffRateWriter implements RateRowWriter {
+
+    static final String DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern(DATE_PATTERN);
+
+    private final Writer out;
+    private final char[] fraction = new char[ScaledPrice.DIGITS];
+    private String[] quotedCurrencies;
+
+    public ArffRateWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void begin(List<String> currencies, List<RateKind> kinds) throws IOException {
+        out.write("@relation nbe_exchange_rates\n\n");
+        out.write("@attribute scraped_at date \"" + DATE_PATTERN + "\"\n");
+
+        quotedCurrencies = new String[currencies.size()];
+        out.write("@attribute currency {");
+        for (int i = 0; i < currencies.size(); i++) {
+            quotedCurrencies[i] = quote(currencies.get(i));
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(quotedCurrencies[i]);
+        }
+        out.write("}\n");
+
+        for (RateKind kind : kinds) {
+            out.write("@attribute " + kind.name().toLowerCase(Locale.ROOT) + " numeric\n");
+        }
+        out.write("\n@data\n");
+    }
+
+    @Override
+    public void row(LocalDateTime scrapedAt, int currency, long[] prices) throws IOException {
+        DATE_FORMAT.formatTo(scrapedAt, out);
+        out.write(',');
+        out.write(quotedCurrencies[currency]);
+        for (long price : prices) {
+            out.write(',');
+            if (price == ScaledPrice.MISSING) {
+                out.write('?');
+            } else {
+                writeDecimal(price);
+            }
+        }
+        out.write('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Plain decimal without trailing zeros, straight from the scaled long (no double rounding, no exponent).
+     */
+    private void writeDecimal(long scaled) throws IOException {
+        if (scaled < 0) {
+            out.write('-');
+            scaled = -scaled;
+        }
+        out.write(Long.toString(scaled / ScaledPrice.SCALE));
+        long rest = scaled % ScaledPrice.SCALE;
+        if (rest == 0) {
+            return;
+        }
+        int length = ScaledPrice.DIGITS;
+        for (int i = ScaledPrice.DIGITS - 1; i >= 0; i--) {
+            fraction[i] = (char) ('0' + rest % 10);
+            rest /= 10;
+        }
+        while (fraction[length - 1] == '0') {
+            length--;
+        }
+        out.write('.');
+        out.write(fraction, 0, length);
+    }
+
+    static String quote(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.export;
+
+import com.example.demo.history.RateKind;
+import com.example.demo.history.ScaledPrice;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads files written by {@link ColumnarRateWriter}, one block at a time.
+ */
+public class ColumnarRateReader {
+
+    @FunctionalInterface
+    public interface RowConsumer {
+        /**
+         * @param prices scaled prices in {@link #kinds()} order, {@link ScaledPrice#MISSING} if not quoted;
+         *               the array is reused between rows
+         */
+        void accept(long epochSecond, String currency, long[] prices);
+    }
+
+    private final DataInputStream in;
+    private final List<RateKind> kinds = new ArrayList<>();
+    private final List<String> currencies = new ArrayList<>();
+
+    public ColumnarRateReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        byte[] magic = new byte[ColumnarRateWriter.MAGIC.length];
+        this.in.readFully(magic);
+        if (!Arrays.equals(magic, ColumnarRateWriter.MAGIC)) {
+            throw new IOException("Not a columnar rate export");
+        }
+        int version = this.in.readUnsignedByte();
+        int digits = this.in.readUnsignedByte();
+        if (version != ColumnarRateWriter.VERSION || digits != ScaledPrice.DIGITS) {
+            throw new IOException("Unsupported columnar export version " + version + " with " + digits + " decimals");
+        }
+        for (int i = (int) readVarint(); i > 0; i--) {
+            kinds.add(RateKind.valueOf(this.in.readUTF()));
+        }
+        for (int i = (int) readVarint(); i > 0; i--) {
+            currencies.add(this.in.readUTF());
+        }
+    }
+
+    public List<RateKind> kinds() {
+        return kinds;
+    }
+
+    public List<String> currencies() {
+        return currencies;
+    }
+
+    /**
+     * Decodes every remaining row, oldest first, and returns how many there were.
+     */
+    public long read(RowConsumer consumer) throws IOException {
+        long total = 0;
+        long[] row = new long[kinds.size()];
+        for (int size = (int) readVarint(); size > 0; size = (int) readVarint()) {
+            long[] seconds = new long[size];
+            seconds[0] = unzigzag(readVarint());
+            for (int i = 1; i < size; i++) {
+                seconds[i] = seconds[i - 1] + unzigzag(readVarint());
+            }
+            int[] currency = new int[size];
+            for (int i = 0; i < size; i++) {
+                currency[i] = (int) readVarint();
+            }
+
+            long[][] prices = new long[kinds.size()][size];
+            long[][] previous = new long[currencies.size()][kinds.size()];
+            byte[] bitmap = new byte[(size + 7) / 8];
+            for (int k = 0; k < prices.length; k++) {
+                in.readFully(bitmap);
+                for (int i = 0; i < size; i++) {
+                    if ((bitmap[i >>> 3] & (1 << (i & 7))) == 0) {
+                        prices[k][i] = ScaledPrice.MISSING;
+                    } else {
+                        long[] last = previous[currency[i]];
+                        last[k] += unzigzag(readVarint());
+                        prices[k][i] = last[k];
+                    }
+                }
+            }
+
+            for (int i = 0; i < size; i++) {
+                for (int k = 0; k < row.length; k++) {
+                    row[k] = prices[k][i];
+                }
+                consumer.accept(seconds[i], currencies.get(currency[i]), row);
+            }
+            total += size;
+        }
+        return total;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated columnar rate export");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.export;
+
+import com.example.demo.history.RateHistory;
+import com.example.demo.history.RateKind;
+import com.example.demo.history.ScaledPrice;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes rows in a compact binary layout, buffering at most {@link #BLOCK_ROWS} rows at a time.
+ * <pre>
+ * header  "NBER", version (1 byte), price decimals (1 byte),
+ *         kind count (varint) + kind names, currency count (varint) + currency names (modified UTF-8, as DataOutput.writeUTF)
+ * block   row count n (varint, 0 ends the file), then the columns of its n rows:
+ *         scraped_at  epoch second (UTC) of the first row, then n-1 deltas      (zigzag varints)
+ *         currency    index into the header's currency list                      (varints)
+ *         per kind    presence bitmap (ceil(n/8) bytes, bit i of byte i/8 = row i quoted), then for each quoted
+ *                     row the difference to the previous quoted value of the same currency in this block,
+ *                     starting from 0                                            (zigzag varints)
+ * </pre>
+ * Blocks decode independently. Divide a scaled price by 10^decimals to get the rate. Rates move little between
+ * scrapes, so most deltas fit in one or two bytes.
+ */
+public class ColumnarRateWriter implements RateRowWriter {
+
+    static final byte[] MAGIC = {'N', 'B', 'E', 'R'};
+    static final int VERSION = 1;
+    static final int BLOCK_ROWS = 4096;
+
+    private final DataOutputStream out;
+    private final long[] seconds = new long[BLOCK_ROWS];
+    private final int[] currencies = new int[BLOCK_ROWS];
+    private long[][] prices;
+    private long[][] previous;
+    private int size;
+
+    public ColumnarRateWriter(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+    }
+
+    @Override
+    public void begin(List<String> currencyNames, List<RateKind> kinds) throws IOException {
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(ScaledPrice.DIGITS);
+        writeVarint(kinds.size());
+        for (RateKind kind : kinds) {
+            out.writeUTF(kind.name());
+        }
+        writeVarint(currencyNames.size());
+        for (String currency : currencyNames) {
+            out.writeUTF(currency);
+        }
+        prices = new long[kinds.size()][BLOCK_ROWS];
+        previous = new long[currencyNames.size()][kinds.size()];
+    }
+
+    @Override
+    public void row(LocalDateTime scrapedAt, int currency, long[] rowPrices) throws IOException {
+        seconds[size] = RateHistory.toSecond(scrapedAt);
+        currencies[size] = currency;
+        for (int k = 0; k < prices.length; k++) {
+            prices[k][size] = rowPrices[k];
+        }
+        if (++size == BLOCK_ROWS) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (size > 0) {
+            writeBlock();
+        }
+        writeVarint(0);
+        out.flush();
+    }
+
+    private void writeBlock() throws IOException {
+        writeVarint(size);
+
+        writeVarint(zigzag(seconds[0]));
+        for (int i = 1; i < size; i++) {
+            writeVarint(zigzag(seconds[i] - seconds[i - 1]));
+        }
+        for (int i = 0; i < size; i++) {
+            writeVarint(currencies[i]);
+        }
+
+        for (long[] row : previous) {
+            Arrays.fill(row, 0L);
+        }
+        byte[] bitmap = new byte[(size + 7) / 8];
+        for (int k = 0; k < prices.length; k++) {
+            long[] column = prices[k];
+            Arrays.fill(bitmap, (byte) 0);
+            for (int i = 0; i < size; i++) {
+                if (column[i] != ScaledPrice.MISSING) {
+                    bitmap[i >>> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            out.write(bitmap);
+            for (int i = 0; i < size; i++) {
+                if (column[i] != ScaledPrice.MISSING) {
+                    long[] last = previous[currencies[i]];
+                    writeVarint(zigzag(column[i] - last[k]));
+                    last[k] = column[i];
+                }
+            }
+        }
+        size = 0;
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
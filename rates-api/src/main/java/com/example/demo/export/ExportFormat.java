@@ -0,0 +1,41 @@
+package com.example.demo.export;
+
+import org.springframework.http.MediaType;
+
+import java.io.OutputStream;
+
+/**
+ * File formats offered by the rate export.
+ */
+public enum ExportFormat {
+
+    /**
+     * Weka's attribute-relation format: a date attribute, a nominal currency and one numeric per rate kind.
+     */
+    ARFF(MediaType.parseMediaType("text/x-arff;charset=UTF-8"), "arff"),
+
+    /**
+     * Compact binary blocks stored column by column, see {@link ColumnarRateWriter}.
+     */
+    COLUMNAR(MediaType.APPLICATION_OCTET_STREAM, "rates");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public RateRowWriter newWriter(OutputStream out) {
+        return this == ARFF ? new ArffRateWriter(out) : new ColumnarRateWriter(out);
+    }
+}
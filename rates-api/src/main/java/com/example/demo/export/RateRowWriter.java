@@ -0,0 +1,27 @@
+package com.example.demo.export;
+
+import com.example.demo.history.RateKind;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Streams exported rate rows in one file format. Rows arrive oldest first; prices are scaled longs
+ * (see {@link com.example.demo.history.ScaledPrice}), one per requested kind, in the order given to {@link #begin}.
+ */
+public interface RateRowWriter {
+
+    void begin(List<String> currencies, List<RateKind> kinds) throws IOException;
+
+    /**
+     * @param currency index into the currency list given to {@link #begin}
+     * @param prices   one scaled price per kind, {@link com.example.demo.history.ScaledPrice#MISSING} if not quoted
+     */
+    void row(LocalDateTime scrapedAt, int currency, long[] prices) throws IOException;
+
+    /**
+     * Writes any buffered rows and the trailer, and flushes. Does not close the underlying stream.
+     */
+    void finish() throws IOException;
+}
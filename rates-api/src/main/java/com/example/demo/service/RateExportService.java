@@ -0,0 +1,140 @@
+package com.example.demo.service;
+
+import com.example.demo.export.ExportFormat;
+import com.example.demo.export.RateRowWriter;
+import com.example.demo.history.RateKind;
+import com.example.demo.history.ScaledPrice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams rate history out of the database for analysis tools. Rows go from a forward-only JDBC cursor
+ * straight into the format writer, so memory use does not depend on the size of the range.
+ */
+@Service
+public class RateExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateExportService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public RateExportService(JdbcTemplate jdbcTemplate,
+                             @Value("${rates.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Currencies with rows in [from, to), in name order; used when an export does not name any.
+     */
+    public List<String> currenciesBetween(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT CURRENCY FROM EXCHANGE_RATE " +
+                        "WHERE SCRAPED_AT >= ? AND SCRAPED_AT < ? AND CURRENCY IS NOT NULL ORDER BY CURRENCY",
+                String.class, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Writes the rows of the given currencies scraped in [from, to), oldest first, and returns a summary.
+     * Rows of currencies outside the list (published after the list was taken, say) are skipped.
+     */
+    public Map<String, Object> export(List<String> currencies, List<RateKind> kinds, LocalDateTime from,
+                                      LocalDateTime to, ExportFormat format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        RateRowWriter writer = format.newWriter(out);
+        writer.begin(currencies, kinds);
+
+        StringBuilder sql = new StringBuilder("SELECT SCRAPED_AT, CURRENCY");
+        for (RateKind kind : kinds) {
+            sql.append(", ").append(kind.name());
+        }
+        sql.append(" FROM EXCHANGE_RATE WHERE SCRAPED_AT >= ? AND SCRAPED_AT < ? AND CURRENCY IN (");
+        for (int i = 0; i < currencies.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") ORDER BY SCRAPED_AT, ID");
+
+        RowStreamer streamer = new RowStreamer(writer, currencies, kinds.size());
+        if (!currencies.isEmpty()) {
+            try {
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(fetchSize);
+                    ps.setTimestamp(1, Timestamp.valueOf(from));
+                    ps.setTimestamp(2, Timestamp.valueOf(to));
+                    for (int i = 0; i < currencies.size(); i++) {
+                        ps.setString(3 + i, currencies.get(i));
+                    }
+                    return ps;
+                }, streamer);
+            } catch (UncheckedIOException e) {
+                // client went away mid-download
+                throw e.getCause();
+            }
+        }
+        writer.finish();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("format", format);
+        result.put("currencies", currencies.size());
+        result.put("rowsWritten", streamer.written);
+        result.put("rowsSkipped", streamer.skipped);
+        result.put("elapsedMillis", (System.nanoTime() - started) / 1_000_000);
+        logger.info("Exported rates {} to {}: {}", from, to, result);
+        return result;
+    }
+
+    private static final class RowStreamer implements RowCallbackHandler {
+        private final RateRowWriter writer;
+        private final Map<String, Integer> currencyIndex = new HashMap<>();
+        private final long[] prices;
+        long written;
+        long skipped;
+
+        RowStreamer(RateRowWriter writer, List<String> currencies, int kinds) {
+            this.writer = writer;
+            for (int i = 0; i < currencies.size(); i++) {
+                currencyIndex.put(currencies.get(i), i);
+            }
+            this.prices = new long[kinds];
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            Timestamp scrapedAt = rs.getTimestamp(1);
+            Integer currency = currencyIndex.get(rs.getString(2));
+            if (scrapedAt == null || currency == null) {
+                skipped++;
+                return;
+            }
+            for (int k = 0; k < prices.length; k++) {
+                prices[k] = ScaledPrice.parse(rs.getString(3 + k));
+            }
+            try {
+                writer.row(scrapedAt.toLocalDateTime(), currency, prices);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            written++;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import com.example.demo.history.RateHistory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Owns the in-memory {@link RateHistory}: loads it from the database before the server starts,
+ * then appends rows the worker publishes, found by polling for ids above the last one seen.
+ * <p>
+ * Rows are read straight from JDBC into the columnar store, so no entities are created. If a
+ * new row is older than its currency's latest point (an import of old history, say), the
+ * history is rebuilt and swapped in. The same happens whenever the {@link RateRevisions} marker moves,
+ * which every writer bumps after committing: the id poll alone would skip a lower id that commits
+ * after a higher one has been seen.
+ */
+@Service
+public class RateHistoryService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateHistoryService.class);
+
+    private static final String SELECT_ROWS = "SELECT ID, CURRENCY, BANKNOTE_BUY, BANKNOTE_SELL, TRANSFER_BUY, " +
+            "TRANSFER_SELL, SCRAPED_AT FROM EXCHANGE_RATE WHERE ID > ? ORDER BY SCRAPED_AT, ID";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RateRevisions revisions;
+
+    private volatile RateHistory history = new RateHistory();
+    private long lastId;
+    private long lastRevision;
+
+    public RateHistoryService(JdbcTemplate jdbcTemplate, RateRevisions revisions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.revisions = revisions;
+    }
+
+    public RateHistory getHistory() {
+        return history;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // the next poll retries from id 0
+            logger.warn("Could not load rate history: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rates.history.refresh-interval:PT15S}")
+    public synchronized void appendNewRows() {
+        long revision = revisions.current();
+        if (revision != lastRevision) {
+            logger.info("Rate revision moved from {} to {}, rebuilding rate history", lastRevision, revision);
+            rebuild();
+            return;
+        }
+        Loader loader = new Loader(history, lastId);
+        jdbcTemplate.query(SELECT_ROWS, loader, lastId);
+        lastId = loader.maxId;
+        if (loader.outOfOrder > 0) {
+            logger.info("{} rows arrived out of time order, rebuilding rate history", loader.outOfOrder);
+            rebuild();
+        } else if (loader.appended > 0) {
+            logger.debug("Appended {} rows to rate history", loader.appended);
+        }
+    }
+
+    synchronized void rebuild() {
+        long started = System.nanoTime();
+        // read before the rows, so a rewrite during the load is picked up by the next poll
+        long revision = revisions.current();
+        RateHistory fresh = new RateHistory();
+        Loader loader = new Loader(fresh, 0);
+        jdbcTemplate.query(SELECT_ROWS, loader, 0L);
+        history = fresh;
+        lastId = loader.maxId;
+        lastRevision = revision;
+        logger.info("Loaded {} rate points for {} currencies in {} ms (~{} KB)", fresh.size(), fresh.currencies().size(),
+                (System.nanoTime() - started) / 1_000_000, fresh.estimatedBytes() / 1024);
+    }
+
+    private static final class Loader implements RowCallbackHandler {
+        private final RateHistory target;
+        long maxId;
+        long appended;
+        long outOfOrder;
+
+        Loader(RateHistory target, long lastId) {
+            this.target = target;
+            this.maxId = lastId;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            maxId = Math.max(maxId, rs.getLong(1));
+            String currency = rs.getString(2);
+            Timestamp scrapedAt = rs.getTimestamp(7);
+            if (currency == null || scrapedAt == null) {
+                return;
+            }
+            if (target.append(currency, scrapedAt.toLocalDateTime(), rs.getString(3), rs.getString(4),
+                    rs.getString(5), rs.getString(6))) {
+                appended++;
+            } else {
+                outOfOrder++;
+            }
+        }
+    }
+}
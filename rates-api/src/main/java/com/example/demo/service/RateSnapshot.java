@@ -0,0 +1,24 @@
+package com.example.demo.service;
+
+/**
+ * A rate response serialized once, in identity and gzip form, with a strong ETag derived from
+ * the identity bytes.
+ */
+public record RateSnapshot(byte[] json, byte[] gzip, String etag, String gzipEtag) {
+
+    /**
+     * True if any tag in an {@code If-None-Match} header names this snapshot, in either encoding.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(etag) || candidate.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.repository.ExchangeRateRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the published rate responses as pre-serialized {@link RateSnapshot}s.
+ * <p>
+ * The worker writes to the shared database, so this side polls the highest rate id and the
+ * {@link RateRevisions} marker (bumped after every save, import and replay, so rows committed
+ * out of id order are not missed) and drops every snapshot when either moves. Snapshots are then rebuilt on the next request; since the ETag
+ * is a content hash, a rebuilt snapshot with unchanged content keeps its ETag and clients keep
+ * getting 304s.
+ * <p>
+ * Before the web server starts, the last {@code rates.cache.warm-days} days are loaded with one
+ * query and serialized, so a restarted instance answers the common requests from memory at once.
+ */
+@Service
+public class RateSnapshotCache implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateSnapshotCache.class);
+    private static final int MAX_CACHED_SNAPSHOTS = 512;
+    private static final String ALL_RATES = "all";
+
+    private final ExchangeRateQueryService service;
+    private final ExchangeRateRepository repository;
+    private final RateRevisions revisions;
+    private final ObjectMapper objectMapper;
+    private final int warmDays;
+
+    private final Map<String, RateSnapshot> snapshots =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, RateSnapshot> eldest) {
+                    return size() > MAX_CACHED_SNAPSHOTS;
+                }
+            };
+
+    private volatile Long lastSeenId;
+    private volatile long lastSeenRevision;
+    private long generation;
+
+    public RateSnapshotCache(ExchangeRateQueryService service, ExchangeRateRepository repository,
+                             RateRevisions revisions, ObjectMapper objectMapper,
+                             @Value("${rates.cache.warm-days:7}") int warmDays) {
+        this.service = service;
+        this.repository = repository;
+        this.revisions = revisions;
+        this.objectMapper = objectMapper;
+        this.warmDays = warmDays;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            warmUp();
+        } catch (Exception e) {
+            // serving still works, snapshots are then built on first request
+            logger.warn("Could not pre-load rate snapshots: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the recent days in one query and serializes a snapshot per day, today included.
+     */
+    void warmUp() {
+        if (warmDays <= 0) {
+            return;
+        }
+        Long maxId = repository.findMaxId();
+        long revision = revisions.current();
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(warmDays - 1L);
+        Map<LocalDate, List<ExchangeRate>> byDay = service.getRatesSince(from).stream()
+                .collect(Collectors.groupingBy(rate -> rate.getScrapedAt().toLocalDate(), TreeMap::new, Collectors.toList()));
+
+        synchronized (snapshots) {
+            for (LocalDate day = from; !day.isAfter(today); day = day.plusDays(1)) {
+                snapshots.put(day.toString(), serialize(byDateBody(day, byDay.getOrDefault(day, List.of()))));
+            }
+            lastSeenId = maxId;
+            lastSeenRevision = revision;
+        }
+        logger.info("Pre-loaded rate snapshots for {} days ({} with data) up to id {}", warmDays, byDay.size(), maxId);
+    }
+
+    public RateSnapshot allRates() {
+        return get(ALL_RATES, service::getAllRates);
+    }
+
+    public RateSnapshot ratesByDate(LocalDate date) {
+        return get(date.toString(), () -> byDateBody(date, service.getAllRatesByDate(date)));
+    }
+
+    /**
+     * Drops all snapshots when new rows have been published, or past days rewritten, since the last check.
+     */
+    @Scheduled(fixedDelayString = "${rates.cache.refresh-interval:PT15S}")
+    public void refresh() {
+        Long maxId = repository.findMaxId();
+        long revision = revisions.current();
+        if (!Objects.equals(maxId, lastSeenId) || revision != lastSeenRevision) {
+            if (lastSeenId != null) {
+                logger.info("Rates changed (max id {} -> {}, revision {} -> {}), dropping cached responses",
+                        lastSeenId, maxId, lastSeenRevision, revision);
+            }
+            invalidate();
+            lastSeenId = maxId;
+            lastSeenRevision = revision;
+        }
+    }
+
+    public void invalidate() {
+        synchronized (snapshots) {
+            snapshots.clear();
+            generation++;
+        }
+    }
+
+    private RateSnapshot get(String key, Supplier<Object> body) {
+        long startGeneration;
+        synchronized (snapshots) {
+            RateSnapshot cached = snapshots.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            startGeneration = generation;
+        }
+
+        // built outside the lock, so a slow query does not block requests for other keys
+        RateSnapshot snapshot = serialize(body.get());
+        synchronized (snapshots) {
+            if (generation == startGeneration) {
+                snapshots.put(key, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    // Fixed key order and rows sorted by id, so the same day serializes to the same bytes
+    // (and ETag) whether it came from the bulk load or its own query, on any instance
+    private static Map<String, Object> byDateBody(LocalDate date, List<ExchangeRate> rates) {
+        List<ExchangeRate> sorted = rates.stream().sorted(Comparator.comparing(ExchangeRate::getId)).toList();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("date", date);
+        body.put("recordCount", sorted.size());
+        body.put("rates", sorted);
+        return body;
+    }
+
+    private RateSnapshot serialize(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json), 0, 16);
+            return new RateSnapshot(json, gzip(json), "\"" + hash + "\"", "\"" + hash + "-gz\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize rates", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load generator for the rate endpoints. Start the application in the mode under
+ * test, then run:
+ * <pre>
+ * java -cp rates-api/target/test-classes com.example.demo.bench.RatesEndpointLoadBenchmark \
+ *      http://localhost:8081 200 30
+ * </pre>
+ * Arguments: base URL, concurrent clients, duration in seconds. Each client alternates between
+ * {@code /api/rates} and {@code /api/rates/by-date} and the run reports throughput and latency
+ * percentiles, so the platform-thread and virtual-thread models can be compared side by side.
+ */
+public class RatesEndpointLoadBenchmark {
+
+    private static final String[] PATHS = {"/api/rates", "/api/rates/by-date?daysBack=0"};
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        // warm-up, so JIT and connection setup do not skew the first percentiles
+        runLoad(http, baseUrl, Math.min(clients, 10), Duration.ofSeconds(5));
+
+        long started = System.nanoTime();
+        List<Result> results = runLoad(http, baseUrl, clients, duration);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        long[] latencies = results.stream().flatMapToLong(r -> Arrays.stream(r.latencies, 0, r.count)).sorted().toArray();
+        long errors = results.stream().mapToLong(r -> r.errors).sum();
+
+        System.out.printf("clients=%d duration=%.1fs requests=%d errors=%d throughput=%.1f req/s%n",
+                clients, elapsedSeconds, latencies.length, errors, latencies.length / elapsedSeconds);
+        System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private static List<Result> runLoad(HttpClient http, String baseUrl, int clients, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                futures.add(pool.submit(() -> runClient(http, baseUrl, offset, deadline)));
+            }
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Result runClient(HttpClient http, String baseUrl, int offset, long deadline) {
+        Result result = new Result();
+        for (int i = offset; System.nanoTime() < deadline; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + PATHS[i % PATHS.length]))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    result.errors++;
+                    continue;
+                }
+                result.add(System.nanoTime() - start);
+            } catch (Exception e) {
+                result.errors++;
+            }
+        }
+        return result;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static final class Result {
+        long[] latencies = new long[1024];
+        int count;
+        long errors;
+
+        void add(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.bench;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time-to-first-request: launches the application command, polls a URL until it answers
+ * with a non-error status, then stops the process and repeats. Run from the directory the command
+ * expects, for example the CDS layout of a {@code -Pprod} build:
+ * <pre>
+ * cd rates-api/target/cds
+ * java -cp ../test-classes com.example.demo.bench.StartupTimeBenchmark \
+ *      http://localhost:8081/api/rates 5 \
+ *      java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+ *           -Dspring.profiles.active=prod -jar rates-api-0.0.1-SNAPSHOT-cds.jar
+ * </pre>
+ * Arguments: URL, number of runs, then the command. Run it once with the plain
+ * {@code java -jar} command as well to compare against the default startup.
+ */
+public class StartupTimeBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: StartupTimeBenchmark <url> <runs> <command...>");
+            System.exit(2);
+        }
+        URI url = URI.create(args[0]);
+        int runs = Integer.parseInt(args[1]);
+        List<String> command = Arrays.asList(args).subList(2, args.length);
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+
+        long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            millis[run] = timeToFirstRequest(http, url, command);
+            System.out.printf("run %d: %d ms%n", run + 1, millis[run]);
+        }
+
+        Arrays.sort(millis);
+        System.out.printf("time-to-first-request ms: min=%d median=%d max=%d%n",
+                millis[0], millis[runs / 2], millis[runs - 1]);
+    }
+
+    private static long timeToFirstRequest(HttpClient http, URI url, List<String> command) throws Exception {
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(new File("startup-benchmark.log")))
+                .start();
+        try {
+            long deadline = started + STARTUP_TIMEOUT.toNanos();
+            HttpRequest request = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(30)).GET().build();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with code " + process.exitValue()
+                            + " before answering, see startup-benchmark.log");
+                }
+                try {
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() < 400) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    }
+                } catch (java.io.IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException("No successful response from " + url + " within " + STARTUP_TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.service;
+
+import com.example.demo.export.ColumnarRateReader;
+import com.example.demo.export.ColumnarRateWriter;
+import com.example.demo.export.ExportFormat;
+import com.example.demo.history.RateHistory;
+import com.example.demo.history.RateKind;
+import com.example.demo.history.ScaledPrice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateExportServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 16, 0);
+
+    private JdbcTemplate jdbc;
+    private RateExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:export-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbc.execute("CREATE TABLE EXCHANGE_RATE (ID BIGINT AUTO_INCREMENT PRIMARY KEY, CURRENCY VARCHAR(255), " +
+                "TRANSFER_SELL VARCHAR(255), TRANSFER_BUY VARCHAR(255), BANKNOTE_SELL VARCHAR(255), " +
+                "BANKNOTE_BUY VARCHAR(255), SCRAPED_AT TIMESTAMP)");
+        exportService = new RateExportService(jdbc, 7);
+    }
+
+    private void insert(String currency, LocalDateTime at, String banknoteBuy, String transferSell) {
+        jdbc.update("INSERT INTO EXCHANGE_RATE (CURRENCY, TRANSFER_SELL, TRANSFER_BUY, BANKNOTE_SELL, BANKNOTE_BUY, SCRAPED_AT) " +
+                "VALUES (?, ?, '1', '1', ?, ?)", currency, transferSell, banknoteBuy, Timestamp.valueOf(at));
+    }
+
+    @Test
+    void writesArffWithTypedAttributesAndMissingValues() throws Exception {
+        insert("US DOLLAR", START, "49.5", "49.60");
+        insert("O'NEIL DINAR", START.plusMinutes(5), "3.25", "");
+        insert("EURO", START.plusDays(5), "52", "53");
+
+        List<String> currencies = exportService.currenciesBetween(START.toLocalDate().atStartOfDay(), START.plusDays(1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Map<String, Object> result = exportService.export(currencies, List.of(RateKind.BANKNOTE_BUY, RateKind.TRANSFER_SELL),
+                START.toLocalDate().atStartOfDay(), START.plusDays(1), ExportFormat.ARFF, out);
+
+        assertEquals(2L, result.get("rowsWritten"));
+        assertEquals("""
+                @relation nbe_exchange_rates
+
+                @attribute scraped_at date "yyyy-MM-dd'T'HH:mm:ss"
+                @attribute currency {'O\\'NEIL DINAR','US DOLLAR'}
+                @attribute banknote_buy numeric
+                @attribute transfer_sell numeric
+
+                @data
+                2024-01-01T16:00:00,'US DOLLAR',49.5,49.6
+                2024-01-01T16:05:00,'O\\'NEIL DINAR',3.25,?
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void columnarExportRoundTripsAcrossBlocks() throws Exception {
+        int rows = ColumnarRateWriter.BLOCK_ROWS + 10;
+        for (int i = 0; i < rows; i++) {
+            String currency = i % 2 == 0 ? "US DOLLAR" : "EURO";
+            insert(currency, START.plusMinutes(i), i % 7 == 0 ? "" : "49." + i, String.valueOf(50 + i % 3));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(List.of("US DOLLAR", "EURO"), List.of(RateKind.values()),
+                START, START.plusDays(10), ExportFormat.COLUMNAR, out);
+
+        ColumnarRateReader reader = new ColumnarRateReader(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(List.of(RateKind.values()), reader.kinds());
+        List<String> decoded = new ArrayList<>();
+        long count = reader.read((second, currency, prices) -> decoded.add(
+                RateHistory.toDateTime(second) + " " + currency + " " + prices[0] + " " + prices[3]));
+
+        assertEquals(rows, count);
+        for (int i : new int[]{0, 1, 7, 4100, rows - 1}) {
+            String currency = i % 2 == 0 ? "US DOLLAR" : "EURO";
+            long banknoteBuy = i % 7 == 0 ? ScaledPrice.MISSING : ScaledPrice.parse("49." + i);
+            assertEquals(START.plusMinutes(i) + " " + currency + " " + banknoteBuy + " " + (50 + i % 3) * ScaledPrice.SCALE,
+                    decoded.get(i));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.repository.ExchangeRateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateSnapshotCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 28);
+
+    private final ExchangeRateQueryService service = mock(ExchangeRateQueryService.class);
+    private final ExchangeRateRepository repository = mock(ExchangeRateRepository.class);
+    private final RateRevisions revisions = mock(RateRevisions.class);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final RateSnapshotCache cache = new RateSnapshotCache(service, repository, revisions, objectMapper, 3);
+
+    @Test
+    void servesRepeatedRequestsFromOneSnapshot() throws Exception {
+        when(service.getAllRatesByDate(DAY)).thenReturn(List.of(rate(1L, "49.55")));
+
+        RateSnapshot first = cache.ratesByDate(DAY);
+        RateSnapshot second = cache.ratesByDate(DAY);
+
+        assertSame(first, second);
+        verify(service, times(1)).getAllRatesByDate(DAY);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertArrayEquals(first.json(), in.readAllBytes());
+        }
+        assertTrue(new String(first.json()).contains("\"date\":\"2025-10-28\""));
+    }
+
+    @Test
+    void etagOnlyChangesWithContent() {
+        when(service.getAllRatesByDate(DAY)).thenReturn(List.of(rate(1L, "49.55")));
+        when(repository.findMaxId()).thenReturn(1L, 2L, 3L);
+        cache.refresh();
+        String etag = cache.ratesByDate(DAY).etag();
+
+        cache.refresh();
+        assertEquals(etag, cache.ratesByDate(DAY).etag(), "rebuilt with the same rows");
+
+        when(service.getAllRatesByDate(DAY)).thenReturn(List.of(rate(1L, "49.55"), rate(3L, "49.60")));
+        cache.refresh();
+        assertNotEquals(etag, cache.ratesByDate(DAY).etag());
+    }
+
+    @Test
+    void dropsSnapshotsWhenPastDaysAreRewritten() {
+        when(repository.findMaxId()).thenReturn(5L);
+        when(service.getAllRatesByDate(DAY)).thenReturn(List.of(rate(1L, "49.55")));
+        cache.refresh();
+        String etag = cache.ratesByDate(DAY).etag();
+
+        // a replay that deletes and re-inserts rows can leave the highest id where it was
+        when(revisions.current()).thenReturn(1L);
+        when(service.getAllRatesByDate(DAY)).thenReturn(List.of(rate(2L, "49.50")));
+        cache.refresh();
+
+        assertNotEquals(etag, cache.ratesByDate(DAY).etag());
+    }
+
+    @Test
+    void warmUpLoadsRecentDaysInOneQuery() {
+        LocalDate today = LocalDate.now();
+        ExchangeRate yesterday = rate(1L, "49.55");
+        yesterday.setScrapedAt(today.minusDays(1).atTime(16, 0));
+        when(service.getRatesSince(today.minusDays(2))).thenReturn(List.of(yesterday));
+        when(repository.findMaxId()).thenReturn(1L);
+
+        cache.warmUp();
+        cache.refresh();
+
+        assertEquals(1, count(cache.ratesByDate(today.minusDays(1))));
+        assertEquals(0, count(cache.ratesByDate(today)));
+        assertEquals(0, count(cache.ratesByDate(today.minusDays(2))));
+        verify(service, times(1)).getRatesSince(today.minusDays(2));
+        verify(service, never()).getAllRatesByDate(any());
+    }
+
+    @Test
+    void matchesEitherEncodingTag() {
+        when(service.getAllRates()).thenReturn(List.of(rate(1L, "49.55")));
+        RateSnapshot snapshot = cache.allRates();
+
+        assertTrue(snapshot.matches(snapshot.etag()));
+        assertTrue(snapshot.matches("\"other\", " + snapshot.gzipEtag()));
+        assertFalse(snapshot.matches("\"other\""));
+        assertFalse(snapshot.matches(null));
+    }
+
+    private int count(RateSnapshot snapshot) {
+        try {
+            return objectMapper.readTree(snapshot.json()).get("recordCount").asInt();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ExchangeRate rate(Long id, String transferSell) {
+        return ExchangeRate.builder()
+                .id(id)
+                .currency("US DOLLAR")
+                .transferBuy("49.45")
+                .transferSell(transferSell)
+                .banknoteBuy("49.50")
+                .banknoteSell("49.60")
+                .scrapedAt(LocalDateTime.of(2025, 10, 28, 16, 0))
+                .build();
+    }
+}
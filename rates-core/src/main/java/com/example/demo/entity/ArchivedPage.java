@@ -0,0 +1,38 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A fetched NBE page, gzip-compressed and keyed by the SHA-256 of its source, so identical
+ * pages are stored once. Each fetch that returned it is recorded as a {@link PageFetch}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "ARCHIVED_PAGE")
+public class ArchivedPage {
+
+    @Id
+    @Column(name = "HASH", length = 64)
+    private String hash;
+
+    @Lob
+    @Column(name = "CONTENT")
+    private byte[] content;
+
+    @Column(name = "ORIGINAL_SIZE")
+    private int originalSize;
+
+    @Column(name = "FIRST_FETCHED_AT")
+    private LocalDateTime firstFetchedAt;
+}
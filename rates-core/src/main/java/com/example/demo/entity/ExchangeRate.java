@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 
-@Table(name = "EXCHANGE_RATE")
+@Table(name = "EXCHANGE_RATE", indexes = @Index(name = "IX_EXCHANGE_RATE_SCRAPED_AT", columnList = "SCRAPED_AT"))
 
 public class ExchangeRate {
 
@@ -0,0 +1,35 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One page fetch: when it happened and which {@link ArchivedPage} it returned.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "PAGE_FETCH", indexes = @Index(name = "IX_PAGE_FETCH_FETCHED_AT", columnList = "FETCHED_AT"))
+public class PageFetch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "PAGE_HASH", length = 64)
+    private String pageHash;
+
+    @Column(name = "FETCHED_AT")
+    private LocalDateTime fetchedAt;
+}
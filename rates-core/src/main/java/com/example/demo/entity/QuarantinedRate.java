@@ -0,0 +1,64 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A scraped rate held back from the ERP pushes by the validation gate until someone approves it.
+ * The hold applies to the currency's row scraped at {@code scrapedAt}, whatever its id, so it
+ * survives an archive replay regenerating that row.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "QUARANTINED_RATE", indexes = @Index(name = "IX_QUARANTINED_RATE_SCRAPED_AT", columnList = "SCRAPED_AT"))
+public class QuarantinedRate {
+
+    public enum Status {
+        PENDING,
+        APPROVED,
+        REJECTED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // EXCHANGE_RATE.ID of the row when it was held; a replay may have re-created it under another id
+    @Column(name = "RATE_ID")
+    private Long rateId;
+
+    @Column(name = "CURRENCY")
+    private String currency;
+
+    @Column(name = "SCRAPED_AT")
+    private LocalDateTime scrapedAt;
+
+    @Column(name = "REASON", length = 1000)
+    private String reason;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", length = 16)
+    private Status status;
+
+    @Column(name = "DETECTED_AT")
+    private LocalDateTime detectedAt;
+
+    @Column(name = "DECIDED_AT")
+    private LocalDateTime decidedAt;
+}
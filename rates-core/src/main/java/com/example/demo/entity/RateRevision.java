@@ -0,0 +1,33 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A counter bumped after every write to EXCHANGE_RATE (live scrape, archive replay, history import),
+ * so readers can notice changes that a new highest id does not reveal.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "RATE_REVISION")
+public class RateRevision {
+
+    @Id
+    @Column(name = "NAME", length = 64)
+    private String name;
+
+    @Column(name = "REVISION")
+    private long revision;
+
+    @Column(name = "CHANGED_AT")
+    private LocalDateTime changedAt;
+}
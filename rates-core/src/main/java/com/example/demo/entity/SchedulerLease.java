@@ -0,0 +1,35 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One row per cluster-wide job: which node currently owns it and until when.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "SCHEDULER_LEASE")
+public class SchedulerLease {
+
+    @Id
+    @Column(name = "NAME", length = 64)
+    private String name;
+
+    @Column(name = "OWNER", length = 128)
+    private String owner;
+
+    @Column(name = "HEARTBEAT_AT")
+    private Instant heartbeatAt;
+
+    @Column(name = "LOCKED_UNTIL")
+    private Instant lockedUntil;
+}
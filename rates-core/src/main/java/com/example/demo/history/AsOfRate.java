@@ -0,0 +1,15 @@
+package com.example.demo.history;
+
+/**
+ * The rate in effect at a point in time: its scaled price and the interval it was valid for,
+ * from the scrape that published it up to (excluding) the next quote of the same kind.
+ * {@code validToSecond} is {@link #OPEN} while no newer quote exists.
+ */
+public record AsOfRate(long validFromSecond, long validToSecond, long scaledPrice) {
+
+    public static final long OPEN = Long.MAX_VALUE;
+
+    public boolean isOpen() {
+        return validToSecond == OPEN;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.history;
+
+/**
+ * Receives one point of a range scan: epoch second and price scaled by {@link ScaledPrice#SCALE}.
+ */
+@FunctionalInterface
+public interface PointConsumer {
+    void accept(long epochSecond, long scaledPrice);
+}
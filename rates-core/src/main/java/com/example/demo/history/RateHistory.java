@@ -0,0 +1,154 @@
+package com.example.demo.history;
+
+import com.example.demo.entity.ExchangeRate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory, columnar rate history for all currencies.
+ * <p>
+ * A point costs 36 bytes (an int time offset and four scaled longs) against several hundred
+ * for an {@link ExchangeRate} entity with its strings. Times are the scraped wall-clock times,
+ * stored as seconds as if they were UTC, and converted back the same way.
+ * <p>
+ * Appends come from a single loader; scans take a read lock and run concurrently.
+ */
+public final class RateHistory {
+
+    private final Map<String, RateSeries> series = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int chunkSize;
+    private long points;
+
+    public RateHistory() {
+        this(RateSeries.DEFAULT_CHUNK_SIZE);
+    }
+
+    RateHistory(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public boolean append(ExchangeRate rate) {
+        return append(rate.getCurrency(), rate.getScrapedAt(), rate.getBanknoteBuy(), rate.getBanknoteSell(),
+                rate.getTransferBuy(), rate.getTransferSell());
+    }
+
+    /**
+     * Appends one scraped row. Returns false if it is older than the currency's latest point,
+     * in which case the history has to be rebuilt to include it.
+     */
+    public boolean append(String currency, LocalDateTime scrapedAt, String banknoteBuy, String banknoteSell,
+                          String transferBuy, String transferSell) {
+        long[] values = {
+                ScaledPrice.parse(banknoteBuy),
+                ScaledPrice.parse(banknoteSell),
+                ScaledPrice.parse(transferBuy),
+                ScaledPrice.parse(transferSell)
+        };
+        lock.writeLock().lock();
+        try {
+            boolean appended = series.computeIfAbsent(currency, c -> new RateSeries(chunkSize))
+                    .append(toSecond(scrapedAt), values);
+            if (appended) {
+                points++;
+            }
+            return appended;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Set<String> currencies() {
+        lock.readLock().lock();
+        try {
+            return new TreeSet<>(series.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scans {@code [from, to)} for one currency and kind. Returns false if the currency is unknown.
+     */
+    public boolean scan(String currency, RateKind kind, LocalDateTime from, LocalDateTime to, PointConsumer consumer) {
+        lock.readLock().lock();
+        try {
+            RateSeries s = series.get(currency);
+            if (s == null) {
+                return false;
+            }
+            s.scan(toSecond(from), toSecond(to), kind, consumer);
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<RateStats> stats(String currency, RateKind kind, LocalDateTime from, LocalDateTime to) {
+        lock.readLock().lock();
+        try {
+            RateSeries s = series.get(currency);
+            return s == null ? Optional.empty() : Optional.of(s.stats(toSecond(from), toSecond(to), kind));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The quote of {@code kind} in effect for {@code currency} at each of the given times, in the
+     * same order; an entry is null where nothing had been quoted yet. Empty if the currency is unknown.
+     */
+    public Optional<AsOfRate[]> asOf(String currency, RateKind kind, LocalDateTime... at) {
+        lock.readLock().lock();
+        try {
+            RateSeries s = series.get(currency);
+            if (s == null) {
+                return Optional.empty();
+            }
+            AsOfRate[] found = new AsOfRate[at.length];
+            for (int i = 0; i < at.length; i++) {
+                found[i] = s.asOf(toSecond(at[i]), kind);
+            }
+            return Optional.of(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return points;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (RateSeries s : series.values()) {
+                bytes += s.estimatedBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static long toSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.history;
+
+/**
+ * The four quoted rates of a currency, in the column order used by {@link RateSeries}.
+ */
+public enum RateKind {
+    BANKNOTE_BUY,
+    BANKNOTE_SELL,
+    TRANSFER_BUY,
+    TRANSFER_SELL
+}
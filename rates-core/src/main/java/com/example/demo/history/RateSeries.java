@@ -0,0 +1,183 @@
+package com.example.demo.history;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One currency's history as a list of {@link SeriesChunk}s, ordered by time.
+ * Points must be appended in non-decreasing time order. Not thread-safe on its own, see {@link RateHistory}.
+ */
+public final class RateSeries {
+
+    static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private final int chunkSize;
+    private final List<SeriesChunk> chunks = new ArrayList<>();
+    private long lastSecond = Long.MIN_VALUE;
+    private int size;
+
+    RateSeries() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    RateSeries(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Appends a point with one scaled price per {@link RateKind}. Returns false, and stores
+     * nothing, if the point is older than the last one.
+     */
+    boolean append(long epochSecond, long[] values) {
+        if (epochSecond < lastSecond) {
+            return false;
+        }
+        SeriesChunk tail = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (tail == null || !tail.canAppend(epochSecond)) {
+            tail = new SeriesChunk(epochSecond, chunkSize);
+            chunks.add(tail);
+        }
+        tail.append(epochSecond, values);
+        lastSecond = epochSecond;
+        size++;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Feeds every quoted point in {@code [fromSecond, toSecond)} to the consumer, in time order.
+     */
+    public void scan(long fromSecond, long toSecond, RateKind kind, PointConsumer consumer) {
+        for (int c = firstChunk(fromSecond); c < chunks.size(); c++) {
+            SeriesChunk chunk = chunks.get(c);
+            if (chunk.firstSecond() >= toSecond) {
+                return;
+            }
+            for (int i = chunk.lowerBound(fromSecond); i < chunk.size(); i++) {
+                long time = chunk.timeAt(i);
+                if (time >= toSecond) {
+                    return;
+                }
+                long price = chunk.priceAt(kind, i);
+                if (price != ScaledPrice.MISSING) {
+                    consumer.accept(time, price);
+                }
+            }
+        }
+    }
+
+    public RateStats stats(long fromSecond, long toSecond, RateKind kind) {
+        Accumulator acc = new Accumulator();
+        scan(fromSecond, toSecond, kind, acc);
+        return acc.toStats();
+    }
+
+    /**
+     * The latest quote of {@code kind} at or before {@code epochSecond}, with the time the next
+     * quote replaced it. Two binary searches (chunk, then offset); quotes the bank left empty are
+     * stepped over. Returns null if there is no quote that early.
+     */
+    public AsOfRate asOf(long epochSecond, RateKind kind) {
+        int c = lastChunkStartingBy(epochSecond);
+        if (c < 0) {
+            return null;
+        }
+        int i = chunks.get(c).upperBound(epochSecond) - 1;
+        while (chunks.get(c).priceAt(kind, i) == ScaledPrice.MISSING) {
+            if (--i < 0) {
+                if (--c < 0) {
+                    return null;
+                }
+                i = chunks.get(c).size() - 1;
+            }
+        }
+        SeriesChunk found = chunks.get(c);
+        return new AsOfRate(found.timeAt(i), nextQuote(c, i + 1, kind), found.priceAt(kind, i));
+    }
+
+    private long nextQuote(int c, int i, RateKind kind) {
+        for (; c < chunks.size(); c++, i = 0) {
+            SeriesChunk chunk = chunks.get(c);
+            for (; i < chunk.size(); i++) {
+                if (chunk.priceAt(kind, i) != ScaledPrice.MISSING) {
+                    return chunk.timeAt(i);
+                }
+            }
+        }
+        return AsOfRate.OPEN;
+    }
+
+    // last chunk whose first point is at or before epochSecond, or -1
+    private int lastChunkStartingBy(long epochSecond) {
+        int low = 0;
+        int high = chunks.size() - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (chunks.get(mid).firstSecond() <= epochSecond) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    long estimatedBytes() {
+        long bytes = 64;
+        for (SeriesChunk chunk : chunks) {
+            bytes += chunk.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    // first chunk that may hold a point at or after fromSecond
+    private int firstChunk(long fromSecond) {
+        int low = 0;
+        int high = chunks.size() - 1;
+        int result = chunks.size();
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (chunks.get(mid).lastSecond() >= fromSecond) {
+                result = mid;
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return result;
+    }
+
+    private static final class Accumulator implements PointConsumer {
+        long count;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        double sum;
+        long first;
+        long last;
+
+        @Override
+        public void accept(long epochSecond, long price) {
+            if (count == 0) {
+                first = price;
+            }
+            last = price;
+            min = Math.min(min, price);
+            max = Math.max(max, price);
+            sum += price;
+            count++;
+        }
+
+        RateStats toStats() {
+            if (count == 0) {
+                return RateStats.EMPTY;
+            }
+            return new RateStats(count, ScaledPrice.toDouble(min), ScaledPrice.toDouble(max),
+                    sum / count / ScaledPrice.SCALE, ScaledPrice.toDouble(first), ScaledPrice.toDouble(last));
+        }
+    }
+}
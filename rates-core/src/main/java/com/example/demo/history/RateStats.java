@@ -0,0 +1,9 @@
+package com.example.demo.history;
+
+/**
+ * Summary of one rate kind over a time range. Empty ranges have {@code count == 0} and NaN values.
+ */
+public record RateStats(long count, double min, double max, double mean, double first, double last) {
+
+    static final RateStats EMPTY = new RateStats(0, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+}
@@ -0,0 +1,74 @@
+package com.example.demo.history;
+
+/**
+ * Fixed-point prices: a rate is stored as a long holding the value times {@link #SCALE}.
+ */
+public final class ScaledPrice {
+
+    public static final int DIGITS = 6;
+    public static final long SCALE = 1_000_000L;
+
+    /**
+     * Marks a rate the bank did not quote (or that could not be parsed).
+     */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    private ScaledPrice() {
+    }
+
+    /**
+     * Parses a scraped decimal such as {@code "49.55"} without going through BigDecimal or Double.
+     * Digits beyond {@link #DIGITS} decimals are truncated.
+     */
+    public static long parse(String text) {
+        if (text == null) {
+            return MISSING;
+        }
+        int i = 0;
+        int end = text.length();
+        while (i < end && text.charAt(i) == ' ') i++;
+        while (end > i && text.charAt(end - 1) == ' ') end--;
+        if (i == end) {
+            return MISSING;
+        }
+
+        boolean negative = text.charAt(i) == '-';
+        if (negative) {
+            i++;
+        }
+        long value = 0;
+        int decimals = -1;
+        boolean anyDigit = false;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                if (decimals >= DIGITS) {
+                    continue;
+                }
+                if (value > (Long.MAX_VALUE - 9) / 10) {
+                    return MISSING;
+                }
+                value = value * 10 + (c - '0');
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else if (c != ',') {
+                return MISSING;
+            }
+        }
+        if (!anyDigit) {
+            return MISSING;
+        }
+        for (int d = Math.max(decimals, 0); d < DIGITS; d++) {
+            value *= 10;
+        }
+        return negative ? -value : value;
+    }
+
+    public static double toDouble(long scaled) {
+        return (double) scaled / SCALE;
+    }
+}
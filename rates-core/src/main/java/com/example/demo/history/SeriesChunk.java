@@ -0,0 +1,115 @@
+package com.example.demo.history;
+
+import java.util.Arrays;
+
+/**
+ * Append-only block of points. Timestamps are int second offsets from the chunk's first point,
+ * prices are scaled longs, one primitive column per {@link RateKind}. Columns grow by doubling
+ * up to the chunk capacity, so short series stay small.
+ */
+final class SeriesChunk {
+
+    private static final int INITIAL_CAPACITY = 64;
+    static final int KINDS = RateKind.values().length;
+
+    private final long baseSecond;
+    private final int capacity;
+    private int[] offsets;
+    private final long[][] prices = new long[KINDS][];
+    private int size;
+
+    SeriesChunk(long baseSecond, int capacity) {
+        this.baseSecond = baseSecond;
+        this.capacity = capacity;
+        int initial = Math.min(INITIAL_CAPACITY, capacity);
+        this.offsets = new int[initial];
+        for (int k = 0; k < KINDS; k++) {
+            prices[k] = new long[initial];
+        }
+    }
+
+    boolean canAppend(long epochSecond) {
+        return size < capacity && epochSecond - baseSecond <= Integer.MAX_VALUE;
+    }
+
+    void append(long epochSecond, long[] values) {
+        if (size == offsets.length) {
+            int grown = Math.min(capacity, offsets.length * 2);
+            offsets = Arrays.copyOf(offsets, grown);
+            for (int k = 0; k < KINDS; k++) {
+                prices[k] = Arrays.copyOf(prices[k], grown);
+            }
+        }
+        offsets[size] = (int) (epochSecond - baseSecond);
+        for (int k = 0; k < KINDS; k++) {
+            prices[k][size] = values[k];
+        }
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long timeAt(int index) {
+        return baseSecond + offsets[index];
+    }
+
+    long priceAt(RateKind kind, int index) {
+        return prices[kind.ordinal()][index];
+    }
+
+    long firstSecond() {
+        return baseSecond;
+    }
+
+    long lastSecond() {
+        return baseSecond + offsets[size - 1];
+    }
+
+    /**
+     * Index of the first point at or after {@code epochSecond}, or {@link #size()} if none.
+     */
+    int lowerBound(long epochSecond) {
+        long target = epochSecond - baseSecond;
+        if (target <= 0) {
+            return 0;
+        }
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (offsets[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the first point after {@code epochSecond}, or {@link #size()} if none.
+     */
+    int upperBound(long epochSecond) {
+        long target = epochSecond - baseSecond;
+        if (target < 0) {
+            return 0;
+        }
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (offsets[mid] <= target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    long estimatedBytes() {
+        return 16L + 16 + 4L * offsets.length + KINDS * (16 + 8L * offsets.length);
+    }
+}
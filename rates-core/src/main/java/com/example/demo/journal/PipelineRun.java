@@ -0,0 +1,171 @@
+package com.example.demo.journal;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * One pass of the pipeline (a scheduler wake-up, a manual push, ...) and the stages it went through.
+ * <p>
+ * Like {@link com.example.demo.resilience.Deadline}, the run is carried on the current thread:
+ * {@link #time} records into the run bound by {@link #call}, and work handed to another thread must be
+ * wrapped with {@code run.call(...)} there explicitly. Stages timed outside any run still produce their
+ * Flight Recorder event.
+ */
+public final class PipelineRun {
+
+    private static final ThreadLocal<PipelineRun> CURRENT = new ThreadLocal<>();
+
+    private final String id;
+    private final String trigger;
+    private final LocalDate scrapeDate;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startedNanos = System.nanoTime();
+    private final List<StageTiming> stages = new ArrayList<>();
+    private volatile LocalDateTime finishedAt;
+    private volatile long elapsedMillis = -1;
+    private volatile String outcome = "running";
+
+    PipelineRun(String id, String trigger, LocalDate scrapeDate) {
+        this.id = id;
+        this.trigger = trigger;
+        this.scrapeDate = scrapeDate;
+    }
+
+    /**
+     * The run the work on this thread belongs to, if any.
+     */
+    public static Optional<PipelineRun> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Runs the work with this run as the thread's current one.
+     */
+    public <T> T call(Supplier<T> work) {
+        PipelineRun previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static <T> T time(Stage stage, String target, Supplier<T> work, ToIntFunction<T> currencies) {
+        return time(stage, target, work, currencies, result -> false);
+    }
+
+    /**
+     * Times one stage into the current run and emits a {@link PipelineStageEvent}.
+     *
+     * @param currencies how many currencies the stage handled, read from its result
+     * @param isFailure  for stages that report trouble by returning nothing rather than by throwing
+     */
+    public static <T> T time(Stage stage, String target, Supplier<T> work, ToIntFunction<T> currencies,
+                             Predicate<T> isFailure) {
+        PipelineRun run = CURRENT.get();
+        PipelineStageEvent event = new PipelineStageEvent();
+        long started = System.nanoTime();
+        event.begin();
+        T result = null;
+        String outcome = "failed";
+        try {
+            result = work.get();
+            outcome = isFailure.test(result) ? "failed" : "ok";
+            return result;
+        } catch (RuntimeException | Error e) {
+            outcome = failure(e);
+            throw e;
+        } finally {
+            event.end();
+            int count = result == null ? 0 : currencies.applyAsInt(result);
+            if (event.shouldCommit()) {
+                event.runId = run == null ? null : run.id;
+                event.stage = stage.name();
+                event.target = target;
+                event.currencyCount = count;
+                event.outcome = outcome;
+                event.commit();
+            }
+            if (run != null) {
+                run.record(new StageTiming(stage, target, count, (started - run.startedNanos) / 1_000_000,
+                        (System.nanoTime() - started) / 1_000_000, outcome));
+            }
+        }
+    }
+
+    static String failure(Throwable e) {
+        String message = e.getMessage();
+        if (message == null) {
+            return "failed: " + e.getClass().getSimpleName();
+        }
+        return "failed: " + (message.length() <= 200 ? message : message.substring(0, 197) + "...");
+    }
+
+    void finish(String outcome) {
+        this.elapsedMillis = (System.nanoTime() - startedNanos) / 1_000_000;
+        this.finishedAt = LocalDateTime.now();
+        this.outcome = outcome;
+    }
+
+    private void record(StageTiming timing) {
+        synchronized (stages) {
+            stages.add(timing);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTrigger() {
+        return trigger;
+    }
+
+    public LocalDate getScrapeDate() {
+        return scrapeDate;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Wall time of the run, -1 while it is still running. Emails are sent after the run ends,
+     * so their stages may start after this.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public List<StageTiming> getStages() {
+        synchronized (stages) {
+            return List.copyOf(stages);
+        }
+    }
+}
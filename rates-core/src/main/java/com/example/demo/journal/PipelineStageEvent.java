@@ -0,0 +1,36 @@
+package com.example.demo.journal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one {@link Stage} of a run. Costs nothing unless a recording has it enabled,
+ * e.g. {@code jcmd <pid> JFR.start name=rates settings=profile} or {@code -XX:StartFlightRecording}.
+ */
+@Name("com.example.rates.PipelineStage")
+@Label("Rates Pipeline Stage")
+@Category({"Rates", "Pipeline"})
+@Description("One stage of a scrape-and-push run")
+@StackTrace(false)
+public class PipelineStageEvent extends Event {
+
+    @Label("Run Id")
+    String runId;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Target")
+    @Description("Sink, site or mailbox the stage worked against")
+    String target;
+
+    @Label("Currency Count")
+    int currencyCount;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,101 @@
+package com.example.demo.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the last {@code journal.max-runs} {@link PipelineRun}s in memory, newest first, with the
+ * timing and outcome of each stage. Meant to answer "why was last night slow" without turning on
+ * SQL or debug logging; the per-stage detail across restarts is in the Flight Recorder events.
+ */
+@Component
+public class RunJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunJournal.class);
+    private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final int maxRuns;
+    private final Deque<PipelineRun> runs = new ArrayDeque<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public RunJournal(@Value("${journal.max-runs:200}") int maxRuns) {
+        this.maxRuns = Math.max(1, maxRuns);
+    }
+
+    /**
+     * Starts a run and adds it to the journal, so it is visible while still running.
+     */
+    public PipelineRun begin(String trigger, LocalDate scrapeDate) {
+        String id = LocalDateTime.now().format(ID_FORMAT) + "-" + sequence.incrementAndGet();
+        PipelineRun run = new PipelineRun(id, trigger, scrapeDate);
+        synchronized (runs) {
+            runs.addFirst(run);
+            if (runs.size() > maxRuns) {
+                runs.removeLast();
+            }
+        }
+        return run;
+    }
+
+    /**
+     * @param outcome {@code ok}, {@code incomplete}, {@code failed: <message>}, ...
+     */
+    public void end(PipelineRun run, String outcome) {
+        run.finish(outcome);
+        logger.info("Run {} ({}) finished in {} ms: {}", run.getId(), run.getTrigger(), run.getElapsedMillis(), outcome);
+    }
+
+    /**
+     * Runs the work as its own run, which ends {@code ok}, or failed if the work throws.
+     */
+    public <T> T record(String trigger, LocalDate scrapeDate, Supplier<T> work) {
+        PipelineRun run = begin(trigger, scrapeDate);
+        String outcome = "failed";
+        try {
+            T result = run.call(work);
+            outcome = "ok";
+            return result;
+        } catch (RuntimeException | Error e) {
+            outcome = PipelineRun.failure(e);
+            throw e;
+        } finally {
+            end(run, outcome);
+        }
+    }
+
+    /**
+     * Up to {@code limit} runs, newest first, optionally only those of one scrape date.
+     */
+    public List<PipelineRun> recent(int limit, LocalDate scrapeDate) {
+        List<PipelineRun> found = new ArrayList<>();
+        synchronized (runs) {
+            for (Iterator<PipelineRun> it = runs.iterator(); it.hasNext() && found.size() < limit; ) {
+                PipelineRun run = it.next();
+                if (scrapeDate == null || scrapeDate.equals(run.getScrapeDate())) {
+                    found.add(run);
+                }
+            }
+        }
+        return found;
+    }
+
+    public Optional<PipelineRun> find(String id) {
+        synchronized (runs) {
+            return runs.stream().filter(run -> run.getId().equals(id)).findFirst();
+        }
+    }
+}
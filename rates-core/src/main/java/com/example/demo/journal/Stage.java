@@ -0,0 +1,15 @@
+package com.example.demo.journal;
+
+/**
+ * The steps of a scrape-and-push run that are timed into the {@link RunJournal} and Flight Recorder.
+ */
+public enum Stage {
+    BROWSER_LAUNCH,
+    PAGE_WAIT,
+    PARSE,
+    SAVE,
+    VALIDATE,
+    EXISTENCE_PROBE,
+    PUSH,
+    EMAIL
+}
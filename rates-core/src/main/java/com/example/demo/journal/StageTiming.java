@@ -0,0 +1,10 @@
+package com.example.demo.journal;
+
+/**
+ * One timed stage of a {@link PipelineRun}.
+ *
+ * @param offsetMillis when the stage started, counted from the start of the run
+ * @param outcome      {@code ok}, {@code failed} or {@code failed: <message>}
+ */
+public record StageTiming(Stage stage, String target, int currencies, long offsetMillis, long millis, String outcome) {
+}
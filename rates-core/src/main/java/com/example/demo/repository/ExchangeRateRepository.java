@@ -0,0 +1,47 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ExchangeRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Long> {
+    boolean existsByScrapedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    List<ExchangeRate> findByScrapedAtBetween(LocalDateTime start, LocalDateTime end); // ✅ ADD THIS
+
+    List<ExchangeRate> findByScrapedAtGreaterThanEqualOrderById(LocalDateTime from);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ExchangeRate e WHERE e.scrapedAt >= :start AND e.scrapedAt < :end")
+    int deleteByScrapedAtRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Rows of archived fetches: a replay only replaces these, never rows imported or scraped before archiving
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ExchangeRate e WHERE e.scrapedAt IN :times")
+    int deleteByScrapedAtIn(@Param("times") Collection<LocalDateTime> times);
+
+    long countByScrapedAtIn(Collection<LocalDateTime> times);
+
+    @Query("SELECT COUNT(e) FROM ExchangeRate e WHERE e.scrapedAt >= :start AND e.scrapedAt < :end AND e.scrapedAt NOT IN :times")
+    long countInRangeExcept(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                            @Param("times") Collection<LocalDateTime> times);
+
+    // Cheap change marker for appended rows
+    @Query("SELECT MAX(e.id) FROM ExchangeRate e")
+    Long findMaxId();
+    // if you want by date only (ignoring time)
+//    @Query("SELECT e FROM ExchangeRate e WHERE TRUNC(e.scrapedAt) = :date")
+//    List<ExchangeRate> findByScrapedAtDate(@Param("date") LocalDate date);
+}
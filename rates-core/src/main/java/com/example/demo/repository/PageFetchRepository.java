@@ -0,0 +1,15 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.PageFetch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PageFetchRepository extends JpaRepository<PageFetch, Long> {
+
+    List<PageFetch> findByFetchedAtGreaterThanEqualAndFetchedAtLessThanOrderByFetchedAtAscIdAsc(
+            LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.QuarantinedRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface QuarantinedRateRepository extends JpaRepository<QuarantinedRate, Long> {
+
+    List<QuarantinedRate> findByStatusOrderByIdDesc(QuarantinedRate.Status status);
+
+    List<QuarantinedRate> findByScrapedAtBetweenAndStatusNot(LocalDateTime from, LocalDateTime to,
+                                                             QuarantinedRate.Status status);
+
+    List<QuarantinedRate> findByStatusNot(QuarantinedRate.Status status);
+}
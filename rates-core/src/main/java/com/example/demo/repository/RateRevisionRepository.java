@@ -0,0 +1,23 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.RateRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RateRevisionRepository extends JpaRepository<RateRevision, String> {
+
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE RateRevision r SET r.revision = r.revision + 1, r.changedAt = :now WHERE r.name = :name")
+    int increment(@Param("name") String name, @Param("now") LocalDateTime now);
+
+    @Query("SELECT r.revision FROM RateRevision r WHERE r.name = :name")
+    Long findRevision(@Param("name") String name);
+}
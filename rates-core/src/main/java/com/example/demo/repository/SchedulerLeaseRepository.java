@@ -0,0 +1,31 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /**
+     * Takes the lease if it is free or expired, or extends it if this owner already holds it.
+     * Returns 1 when the caller owns the lease afterwards.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE SchedulerLease l SET l.owner = :owner, l.heartbeatAt = :now, l.lockedUntil = :until " +
+            "WHERE l.name = :name AND (l.owner = :owner OR l.lockedUntil <= :now)")
+    int claim(@Param("name") String name, @Param("owner") String owner,
+              @Param("now") Instant now, @Param("until") Instant until);
+
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE SchedulerLease l SET l.lockedUntil = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
@@ -0,0 +1,108 @@
+package com.example.demo.resilience;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * A point in time by which a unit of work must finish, carried on the current thread.
+ * <p>
+ * Code running under {@link #call} can ask {@link #current()} how much time is left, and every
+ * statement issued through {@link DeadlineJdbcTemplate} gets a JDBC query timeout no longer than that,
+ * so a hung database call fails instead of outliving the work that started it. Nested deadlines can
+ * only shorten the outer one (see {@link #within}). Work handed to another thread must be wrapped
+ * with {@code deadline.call(...)} there explicitly.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * The deadline of the work running on this thread, if any.
+     */
+    public static Optional<Deadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * {@code timeout} from now, or the current deadline if that comes first.
+     */
+    public static Deadline within(Duration timeout) {
+        Deadline requested = after(timeout);
+        Deadline current = CURRENT.get();
+        return current != null && current.deadlineNanos - requested.deadlineNanos < 0 ? current : requested;
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @throws DeadlineExceededException if no time is left for {@code operation}
+     */
+    public void check(String operation) {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Deadline passed before " + operation);
+        }
+    }
+
+    /**
+     * Runs the work with this deadline as the thread's current one.
+     */
+    public <T> T call(Supplier<T> work) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Caps the statement's query timeout at the current deadline's remaining time, rounded up to whole
+     * seconds as JDBC requires. Does nothing without a current deadline.
+     *
+     * @throws DeadlineExceededException if the current deadline has already passed
+     */
+    public static void applyTo(Statement statement) throws SQLException {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return;
+        }
+        deadline.check("executing a statement");
+        long remainingMillis = deadline.remaining().toMillis();
+        int seconds = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (remainingMillis + 999) / 1000));
+        int configured = statement.getQueryTimeout();
+        if (configured == 0 || seconds < configured) {
+            statement.setQueryTimeout(seconds);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.resilience;
+
+/**
+ * Thrown when work is about to start after its {@link Deadline} has passed.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.resilience;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * JdbcTemplate that bounds every statement's query timeout by the thread's current {@link Deadline}.
+ */
+public class DeadlineJdbcTemplate extends JdbcTemplate {
+
+    public DeadlineJdbcTemplate() {
+    }
+
+    public DeadlineJdbcTemplate(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        super.applyStatementSettings(stmt);
+        Deadline.applyTo(stmt);
+    }
+}
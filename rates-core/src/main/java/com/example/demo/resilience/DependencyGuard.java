@@ -0,0 +1,131 @@
+package com.example.demo.resilience;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Protects calls to one downstream dependency with a circuit breaker, a bulkhead and a deadline.
+ * <p>
+ * A call is refused at once while the circuit is open. Otherwise it waits at most {@code maxWait}
+ * (and never past its deadline) for one of {@code maxConcurrent} slots, then runs under
+ * {@link Deadline#within}{@code (timeout)}, so JDBC statements inside it time out with it.
+ * Exceptions, and results the caller marks as failures, count against the circuit.
+ */
+public class DependencyGuard {
+
+    private final String name;
+    private final CircuitBreaker breaker;
+    private final Semaphore bulkhead;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final Duration timeout;
+
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+
+    public DependencyGuard(String name, CircuitBreaker breaker, int maxConcurrent, Duration maxWait, Duration timeout) {
+        this.name = name;
+        this.breaker = breaker;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.bulkhead = new Semaphore(this.maxConcurrent, true);
+        this.maxWait = maxWait;
+        this.timeout = timeout;
+    }
+
+    public <T> T call(Supplier<T> work) {
+        return call(work, result -> false);
+    }
+
+    /**
+     * @param isFailure marks results that should count as failures, for dependencies whose clients
+     *                  report trouble by returning nothing rather than by throwing
+     * @throws DependencyUnavailableException if the call was refused without running
+     */
+    public <T> T call(Supplier<T> work, Predicate<T> isFailure) {
+        if (!breaker.tryAcquire()) {
+            rejections.incrementAndGet();
+            throw new DependencyUnavailableException(name + " circuit is open until " + breaker.getRetryAt());
+        }
+
+        Deadline deadline = Deadline.within(timeout);
+        Duration wait = deadline.remaining().compareTo(maxWait) < 0 ? deadline.remaining() : maxWait;
+        boolean entered;
+        try {
+            entered = bulkhead.tryAcquire(wait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+        if (!entered) {
+            breaker.release();
+            rejections.incrementAndGet();
+            throw new DependencyUnavailableException(name + " already has " + maxConcurrent + " calls in flight");
+        }
+
+        try {
+            T result = deadline.call(work);
+            if (isFailure.test(result)) {
+                recordFailure();
+            } else {
+                breaker.onSuccess();
+                successes.incrementAndGet();
+            }
+            return result;
+        } catch (RuntimeException | Error e) {
+            recordFailure();
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private void recordFailure() {
+        breaker.onFailure();
+        failures.incrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker.State getState() {
+        return breaker.getState();
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - bulkhead.availablePermits();
+    }
+
+    public long getSuccesses() {
+        return successes.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("state", breaker.getState());
+        snapshot.put("consecutiveFailures", breaker.getConsecutiveFailures());
+        snapshot.put("retryAt", breaker.getRetryAt());
+        snapshot.put("inFlight", getInFlight());
+        snapshot.put("maxConcurrent", maxConcurrent);
+        snapshot.put("timeout", timeout);
+        snapshot.put("successes", successes.get());
+        snapshot.put("failures", failures.get());
+        snapshot.put("rejections", rejections.get());
+        return snapshot;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * One {@link DependencyGuard} per named dependency ({@code oracle}, {@code as400}, {@code nbe}, ...),
+ * created on first use from {@link ResilienceProperties}. When a MeterRegistry is present each guard
+ * publishes:
+ * <ul>
+ *     <li>{@code rates.dependency.state}: 0 closed, 1 half-open, 2 open</li>
+ *     <li>{@code rates.dependency.in.flight}: calls currently running</li>
+ *     <li>{@code rates.dependency.calls}: calls by {@code outcome} (success, failure, rejected)</li>
+ * </ul>
+ * all tagged with {@code dependency}.
+ */
+@Component
+public class DependencyGuards {
+
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<String, DependencyGuard> guards = new ConcurrentHashMap<>();
+
+    public DependencyGuards(ResilienceProperties properties, ObjectProvider<MeterRegistry> meterRegistry,
+                            ObjectProvider<Clock> clock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        this.clock = clock.getIfAvailable(Clock::systemUTC);
+    }
+
+    public DependencyGuard guard(String name) {
+        return guards.computeIfAbsent(name, this::create);
+    }
+
+    /**
+     * State and counters of every guard created so far, by name.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        guards.forEach((name, guard) -> snapshot.put(name, guard.snapshot()));
+        return snapshot;
+    }
+
+    private DependencyGuard create(String name) {
+        ResilienceProperties.Settings settings = properties.settings(name);
+        DependencyGuard guard = new DependencyGuard(name,
+                new CircuitBreaker(settings.getFailureThreshold(), settings.getOpenDuration(), clock),
+                settings.getMaxConcurrent(), settings.getMaxWait(), settings.getTimeout());
+        if (meterRegistry != null) {
+            Gauge.builder("rates.dependency.state", guard, g -> g.getState().ordinal())
+                    .tag("dependency", name)
+                    .description("Circuit state: 0 closed, 1 half-open, 2 open")
+                    .register(meterRegistry);
+            Gauge.builder("rates.dependency.in.flight", guard, DependencyGuard::getInFlight)
+                    .tag("dependency", name)
+                    .register(meterRegistry);
+            registerCounter(guard, "success", DependencyGuard::getSuccesses);
+            registerCounter(guard, "failure", DependencyGuard::getFailures);
+            registerCounter(guard, "rejected", DependencyGuard::getRejections);
+        }
+        return guard;
+    }
+
+    private void registerCounter(DependencyGuard guard, String outcome, ToDoubleFunction<DependencyGuard> count) {
+        FunctionCounter.builder("rates.dependency.calls", guard, count)
+                .tag("dependency", guard.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
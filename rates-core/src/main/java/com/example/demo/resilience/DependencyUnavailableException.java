@@ -0,0 +1,12 @@
+package com.example.demo.resilience;
+
+/**
+ * Thrown by a {@link DependencyGuard} that refuses a call without trying it: the circuit is open,
+ * the bulkhead stayed full, or the caller's deadline ran out while waiting.
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    public DependencyUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.resilience;
+
+import org.springframework.boot.autoconfigure.jdbc.JdbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(JdbcProperties.class)
+public class ResilienceConfig {
+
+    /**
+     * Replaces Boot's JdbcTemplate (same spring.jdbc.template.* settings) with one that honours {@link Deadline}s.
+     */
+    @Bean
+    public DeadlineJdbcTemplate jdbcTemplate(DataSource dataSource, JdbcProperties properties) {
+        DeadlineJdbcTemplate template = new DeadlineJdbcTemplate(dataSource);
+        JdbcProperties.Template settings = properties.getTemplate();
+        template.setFetchSize(settings.getFetchSize());
+        template.setMaxRows(settings.getMaxRows());
+        if (settings.getQueryTimeout() != null) {
+            template.setQueryTimeout((int) settings.getQueryTimeout().getSeconds());
+        }
+        return template;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-dependency guard settings, bound from {@code resilience.dependencies.<name>.*}.
+ * A dependency without settings uses the defaults.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "resilience")
+public class ResilienceProperties {
+
+    private Map<String, Settings> dependencies = new LinkedHashMap<>();
+
+    public Settings settings(String name) {
+        return dependencies.getOrDefault(name, new Settings());
+    }
+
+    @Data
+    public static class Settings {
+        /**
+         * Failures in a row that open the circuit.
+         */
+        private int failureThreshold = 3;
+        /**
+         * How long an open circuit refuses calls before letting a trial call through.
+         */
+        private Duration openDuration = Duration.ofMinutes(5);
+        /**
+         * Calls allowed in flight at once.
+         */
+        private int maxConcurrent = 1;
+        /**
+         * How long a call may wait for a free slot.
+         */
+        private Duration maxWait = Duration.ofSeconds(30);
+        /**
+         * Longest a single call may take, including its JDBC statements.
+         */
+        private Duration timeout = Duration.ofMinutes(2);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+/**
+ * Maps NBE currency names to the codes used by each downstream system
+ * (ISO codes for Oracle, two-letter codes for AS400).
+ */
+public final class CurrencyRegistry {
+
+    private static final Map<String, String> currencyNameToCodeMap = Map.ofEntries(
+            Map.entry("US DOLLAR", "USD"),
+            Map.entry("EURO", "EUR"),
+            Map.entry("POUND STERLING", "GBP"),
+            Map.entry("CANADIAN DOLLAR", "CAD"),
+            Map.entry("DANISH Krone", "DKK"),
+            Map.entry("NORWEGIAN KRONE", "NOK"),
+            Map.entry("Swedish Krona", "SEK"),
+            Map.entry("SWISS FRANC", "CHF"),
+            Map.entry("YENS(100)", "JPY"),
+            Map.entry("AUSTRALIAN DOLLARS", "AUD"),
+            Map.entry("Kuwait DINAR", "KWD"),
+            Map.entry("SAUDI RIALS", "SAR"),
+            Map.entry("U.A.E DIRHAM", "AED"),
+            Map.entry("BAHRAIN DINAR", "BHD"),
+            Map.entry("OMANI RIAL", "OMR"),
+            Map.entry("QATAR RIAL", "QAR"),
+            Map.entry("JORDAN DINAR", "JOD"),
+            Map.entry("Egyptian Pound", "EGP")
+    );
+    private static final Map<String, String> currencyNameToCodeMapAs400 = Map.ofEntries(
+            Map.entry("US DOLLAR", "US"),
+            Map.entry("EURO", "EU"),
+            Map.entry("POUND STERLING", "SL"), // British Pound
+            Map.entry("CANADIAN DOLLAR", "CD"),
+            Map.entry("DANISH Krone", "DK"),
+            Map.entry("NORWEGIAN KRONE", "NK"),
+            Map.entry("Swedish Krona", "SK"),
+            Map.entry("SWISS FRANC", "CH"),
+            Map.entry("YENS(100)", "JY"),
+            Map.entry("AUSTRALIAN DOLLARS", "AD"),
+            Map.entry("Kuwait DINAR", "KD"),
+            Map.entry("SAUDI RIALS", "SR"),
+            Map.entry("U.A.E DIRHAM", "AE"),
+            Map.entry("BAHRAIN DINAR", "BD"),
+            Map.entry("OMANI RIAL", "OR"),
+            Map.entry("QATAR RIAL", "QR"),
+            Map.entry("JORDAN DINAR", "JD"),
+            Map.entry("Egyptian Pound", "LE")
+    );
+
+    // upper-cased NBE names and Oracle codes -> NBE name as scraped
+    private static final Map<String, String> canonicalNames = buildCanonicalNames();
+
+    private CurrencyRegistry() {
+    }
+
+    /**
+     * The NBE name a currency is stored under, given that name in any letter case and spacing
+     * or its ISO code. Null if the currency is not mapped.
+     */
+    public static String canonicalName(String nameOrCode) {
+        if (nameOrCode == null) {
+            return null;
+        }
+        return canonicalNames.get(nameOrCode.trim().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT));
+    }
+
+    private static Map<String, String> buildCanonicalNames() {
+        Map<String, String> names = new HashMap<>();
+        currencyNameToCodeMap.forEach((name, code) -> {
+            names.put(name.toUpperCase(Locale.ROOT), name);
+            names.put(code, name);
+        });
+        return Map.copyOf(names);
+    }
+
+    public static String oracleCode(String currencyName) {
+        return currencyName == null ? null : currencyNameToCodeMap.get(currencyName);
+    }
+
+    public static String as400Code(String currencyName) {
+        return currencyName == null ? null : currencyNameToCodeMapAs400.get(currencyName);
+    }
+
+    public static Collection<String> oracleCodes() {
+        return currencyNameToCodeMap.values();
+    }
+
+    public static Collection<String> as400Codes() {
+        return currencyNameToCodeMapAs400.values();
+    }
+
+    /**
+     * The rate pushed to the ERPs for a scraped row: transfer sell, falling back to banknote
+     * sell. Empty if both are zero or either is not a number.
+     */
+    public static OptionalDouble conversionRate(ExchangeRate rate) {
+        return conversionRate(rate.getTransferSell(), rate.getBanknoteSell());
+    }
+
+    public static OptionalDouble conversionRate(String transferSellText, String banknoteSellText) {
+        try {
+            double transferSell = Double.parseDouble(transferSellText);
+            double banknoteSell = Double.parseDouble(banknoteSellText);
+            if (transferSell == 0 && banknoteSell == 0) {
+                return OptionalDouble.empty();
+            }
+            return OptionalDouble.of(transferSell != 0 ? transferSell : banknoteSell);
+        } catch (NumberFormatException | NullPointerException e) {
+            return OptionalDouble.empty();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Inserts many EXCHANGE_RATE rows as one JDBC batch. The entity uses IDENTITY keys, which
+ * stops Hibernate from batching inserts, so bulk paths (replay, imports) go through here.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExchangeRateBatchInserter {
+
+    private static final String INSERT_SQL = "INSERT INTO EXCHANGE_RATE " +
+            "(CURRENCY, TRANSFER_SELL, TRANSFER_BUY, BANKNOTE_SELL, BANKNOTE_BUY, SCRAPED_AT) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String DAY_KEYS_SQL =
+            "SELECT CURRENCY, SCRAPED_AT FROM EXCHANGE_RATE WHERE SCRAPED_AT >= ? AND SCRAPED_AT < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int insert(List<ExchangeRate> rates) {
+        if (rates.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rates, rates.size(), (ps, rate) -> {
+            ps.setString(1, rate.getCurrency());
+            ps.setString(2, rate.getTransferSell());
+            ps.setString(3, rate.getTransferBuy());
+            ps.setString(4, rate.getBanknoteSell());
+            ps.setString(5, rate.getBanknoteBuy());
+            ps.setTimestamp(6, Timestamp.valueOf(rate.getScrapedAt()));
+        });
+        return rates.size();
+    }
+
+    /**
+     * Inserts the rows whose (day, currency) is not in the table yet, nor earlier in the same
+     * list. Existing keys are read with one range query per run of consecutive days in the list,
+     * so an unsorted file never reads the days between its rows. The rest is a plain insert
+     * batch. Returns the number of rows inserted.
+     */
+    public int insertNewPerDay(List<ExchangeRate> rates) {
+        if (rates.isEmpty()) {
+            return 0;
+        }
+        TreeSet<LocalDate> days = new TreeSet<>();
+        for (ExchangeRate rate : rates) {
+            days.add(rate.getScrapedAt().toLocalDate());
+        }
+
+        Set<String> seen = new HashSet<>();
+        LocalDate runStart = days.first();
+        LocalDate runEnd = runStart;
+        for (LocalDate day : days.tailSet(runStart, false)) {
+            if (!day.equals(runEnd.plusDays(1))) {
+                readKeys(runStart, runEnd, seen);
+                runStart = day;
+            }
+            runEnd = day;
+        }
+        readKeys(runStart, runEnd, seen);
+
+        List<ExchangeRate> fresh = new ArrayList<>(rates.size());
+        for (ExchangeRate rate : rates) {
+            if (seen.add(dayKey(rate.getScrapedAt().toLocalDate(), rate.getCurrency()))) {
+                fresh.add(rate);
+            }
+        }
+        return insert(fresh);
+    }
+
+    private void readKeys(LocalDate from, LocalDate to, Set<String> seen) {
+        jdbcTemplate.query(DAY_KEYS_SQL, rs -> {
+                    Timestamp scrapedAt = rs.getTimestamp(2);
+                    if (scrapedAt != null) {
+                        seen.add(dayKey(scrapedAt.toLocalDateTime().toLocalDate(), rs.getString(1)));
+                    }
+                },
+                Timestamp.valueOf(from.atStartOfDay()),
+                Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+    }
+
+    private static String dayKey(LocalDate day, String currency) {
+        return day + "|" + currency;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.repository.ExchangeRateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Read access to the scraped rates, shared by the worker, the ERP connectors and the read API.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExchangeRateQueryService {
+
+    private final ExchangeRateRepository repository;
+
+    public List<ExchangeRate> getAllRates() {
+        return repository.findAll();
+    }
+
+    // if you want only by date
+    public List<ExchangeRate> getAllRatesByDate(LocalDate today) {
+        return  repository.findByScrapedAtBetween(
+                today.atStartOfDay(),
+                today.plusDays(1).atStartOfDay()
+        );
+    }
+
+    /**
+     * Every rate scraped on or after the given day, in insertion order, in one query.
+     */
+    public List<ExchangeRate> getRatesSince(LocalDate from) {
+        return repository.findByScrapedAtGreaterThanEqualOrderById(from.atStartOfDay());
+    }
+
+    public boolean hasRatesForDate(LocalDate date) {
+        return repository.existsByScrapedAtBetween(
+                date.atStartOfDay(),
+                date.plusDays(1).atStartOfDay()
+        );
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.SchedulerLease;
+import com.example.demo.repository.SchedulerLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Lease-based leader lock kept in the application database, so that a job runs on one node
+ * of a cluster at a time.
+ * <p>
+ * A node owns a lease until {@code lockedUntil} and keeps it by calling {@link #tryAcquire}
+ * again before the TTL runs out. If the owner dies, the lease expires and the next node to ask
+ * takes it over. Each call is a single conditional UPDATE, so nodes that do not hold the lease
+ * skip cheaply. The TTL should be well above the clock skew between nodes.
+ */
+@Component
+public class LeaseLock {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaseLock.class);
+
+    private final SchedulerLeaseRepository repository;
+    private final Clock clock;
+    private final String owner;
+    private final Duration ttl;
+
+    public LeaseLock(SchedulerLeaseRepository repository,
+                     ObjectProvider<Clock> clock,
+                     @Value("${scheduler.lease.owner:}") String owner,
+                     @Value("${scheduler.lease.ttl:PT2M}") Duration ttl) {
+        this.repository = repository;
+        this.clock = clock.getIfAvailable(Clock::systemUTC);
+        this.owner = owner.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : owner;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Acquires the named lease, or renews it if this node already holds it.
+     */
+    public boolean tryAcquire(String name) {
+        Instant now = clock.instant();
+        Instant until = now.plus(ttl);
+        if (repository.claim(name, owner, now, until) == 1) {
+            return true;
+        }
+        if (repository.existsById(name)) {
+            return false;
+        }
+        try {
+            repository.saveAndFlush(new SchedulerLease(name, owner, now, until));
+            logger.info("Created lease {} owned by {}", name, owner);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // another node created the row first
+            return false;
+        }
+    }
+
+    /**
+     * Gives the lease up so another node can take over without waiting for it to expire.
+     */
+    public void release(String name) {
+        if (repository.release(name, owner, clock.instant()) == 1) {
+            logger.info("Released lease {} held by {}", name, owner);
+        }
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.RateRevision;
+import com.example.demo.repository.RateRevisionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change marker for EXCHANGE_RATE. Every writer calls {@link #bump()} once its rows are committed:
+ * live scrapes, imports and replays alike. Readers poll {@link #current()}, a primary-key lookup,
+ * instead of counting rows. A new highest id alone is not enough, since identity values become
+ * visible at commit time and a lower id can commit after a higher one.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateRevisions {
+
+    static final String EXCHANGE_RATE = "EXCHANGE_RATE";
+
+    private final RateRevisionRepository repository;
+
+    public void bump() {
+        LocalDateTime now = LocalDateTime.now();
+        if (repository.increment(EXCHANGE_RATE, now) == 1) {
+            return;
+        }
+        try {
+            repository.saveAndFlush(new RateRevision(EXCHANGE_RATE, 1, now));
+        } catch (DataIntegrityViolationException e) {
+            // created concurrently by another writer
+            repository.increment(EXCHANGE_RATE, now);
+        }
+    }
+
+    /**
+     * The current revision, 0 before the first rewrite.
+     */
+    public long current() {
+        Long revision = repository.findRevision(EXCHANGE_RATE);
+        return revision == null ? 0 : revision;
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.demo.validation;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.entity.QuarantinedRate;
+import com.example.demo.history.RateKind;
+import com.example.demo.repository.ExchangeRateRepository;
+import com.example.demo.repository.QuarantinedRateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Checks freshly scraped rates against what each currency has been quoting lately and quarantines
+ * the ones that do not fit, so a mis-parsed page (YENS not divided by 100, shifted columns, swapped
+ * buy and sell) never reaches the ERPs.
+ * <p>
+ * Every currency keeps an exponentially weighted mean and variance of each of its four rates and of
+ * the transfer and banknote spreads. A rate is held back when it is more than {@code z-threshold}
+ * standard deviations from its mean, or when a sell is below its buy. Each check and each update
+ * is a handful of arithmetic operations, whatever the history length.
+ * <p>
+ * Held rows stay in EXCHANGE_RATE; the sinks skip them through {@link #releasable} until someone
+ * approves them. Holds are matched on currency and scrape time rather than on the row id, so a row
+ * that an archive replay deletes and re-creates stays held.
+ * <p>
+ * Only live scrapes are inspected. Rows of a history import or a replay are past data, which the
+ * current means say nothing about; a replayed row keeps any hold its original had.
+ */
+@Service
+public class RateValidationGate {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateValidationGate.class);
+
+    private static final RateKind[] KINDS = RateKind.values();
+    private static final int TRANSFER_SPREAD = KINDS.length;
+    private static final int BANKNOTE_SPREAD = KINDS.length + 1;
+
+    private final ExchangeRateRepository rateRepository;
+    private final QuarantinedRateRepository quarantineRepository;
+    private final double alpha;
+    private final double zThreshold;
+    private final int minSamples;
+    private final double minRelativeStdDev;
+    private final double minSpreadStdDev;
+    private final int warmDays;
+
+    // currency -> stats of the four kinds, then transfer and banknote spread
+    private final Map<String, RollingStats[]> stats = new HashMap<>();
+    private boolean warmedUp;
+
+    public RateValidationGate(ExchangeRateRepository rateRepository,
+                              QuarantinedRateRepository quarantineRepository,
+                              @Value("${validation.alpha:0.1}") double alpha,
+                              @Value("${validation.z-threshold:6}") double zThreshold,
+                              @Value("${validation.min-samples:5}") int minSamples,
+                              @Value("${validation.min-relative-std:0.005}") double minRelativeStdDev,
+                              @Value("${validation.min-spread-std:0.002}") double minSpreadStdDev,
+                              @Value("${validation.warm-days:30}") int warmDays) {
+        this.rateRepository = rateRepository;
+        this.quarantineRepository = quarantineRepository;
+        this.alpha = alpha;
+        this.zThreshold = zThreshold;
+        this.minSamples = minSamples;
+        this.minRelativeStdDev = minRelativeStdDev;
+        this.minSpreadStdDev = minSpreadStdDev;
+        this.warmDays = warmDays;
+    }
+
+    /**
+     * Checks saved rows (they need their ids), quarantines the outliers and learns from the rest.
+     *
+     * @return the quarantine entries created
+     */
+    public synchronized List<QuarantinedRate> inspect(List<ExchangeRate> saved) {
+        warmUp();
+        LocalDateTime now = LocalDateTime.now();
+        List<QuarantinedRate> held = new ArrayList<>();
+        for (ExchangeRate rate : saved) {
+            List<String> reasons = check(rate);
+            if (reasons.isEmpty()) {
+                learn(rate);
+                continue;
+            }
+            QuarantinedRate entry = QuarantinedRate.builder()
+                    .rateId(rate.getId())
+                    .currency(rate.getCurrency())
+                    .scrapedAt(rate.getScrapedAt())
+                    .reason(truncate(String.join("; ", reasons)))
+                    .status(QuarantinedRate.Status.PENDING)
+                    .detectedAt(now)
+                    .build();
+            held.add(entry);
+            logger.warn("Quarantined {} scraped at {}: {}", rate.getCurrency(), rate.getScrapedAt(), entry.getReason());
+        }
+        if (!held.isEmpty()) {
+            quarantineRepository.saveAll(held);
+        }
+        return held;
+    }
+
+    /**
+     * The rows that may be pushed: everything except rows whose currency and scrape time are
+     * quarantined and not approved. One query per call.
+     */
+    public List<ExchangeRate> releasable(List<ExchangeRate> rates) {
+        LocalDateTime first = null;
+        LocalDateTime last = null;
+        for (ExchangeRate rate : rates) {
+            LocalDateTime scrapedAt = rate.getScrapedAt();
+            if (scrapedAt == null) {
+                continue;
+            }
+            if (first == null || scrapedAt.isBefore(first)) first = scrapedAt;
+            if (last == null || scrapedAt.isAfter(last)) last = scrapedAt;
+        }
+        if (first == null) {
+            return rates;
+        }
+        Set<String> held = quarantineRepository.findByScrapedAtBetweenAndStatusNot(first, last, QuarantinedRate.Status.APPROVED)
+                .stream().map(entry -> key(entry.getCurrency(), entry.getScrapedAt())).collect(Collectors.toSet());
+        if (held.isEmpty()) {
+            return rates;
+        }
+        List<ExchangeRate> releasable = rates.stream()
+                .filter(rate -> !held.contains(key(rate.getCurrency(), rate.getScrapedAt())))
+                .toList();
+        logger.warn("Holding back {} quarantined rates", rates.size() - releasable.size());
+        return releasable;
+    }
+
+    public List<QuarantinedRate> pending() {
+        return quarantineRepository.findByStatusOrderByIdDesc(QuarantinedRate.Status.PENDING);
+    }
+
+    /**
+     * Releases a quarantined row to the sinks and re-bases the currency's means on it, so that a
+     * genuine jump (a devaluation) is accepted from then on instead of being held every scrape.
+     *
+     * @throws IllegalArgumentException if there is no such entry
+     */
+    public synchronized QuarantinedRate approve(long id) {
+        QuarantinedRate entry = decide(id, QuarantinedRate.Status.APPROVED);
+        // looked up by key, the row may have been replayed under another id since it was held
+        ExchangeRate rate = rateRepository.findByScrapedAtBetween(entry.getScrapedAt(), entry.getScrapedAt()).stream()
+                .filter(candidate -> entry.getCurrency().equals(candidate.getCurrency()))
+                .findFirst()
+                .orElse(null);
+        if (rate != null) {
+            warmUp();
+            RollingStats[] series = series(rate.getCurrency());
+            double[] values = values(rate);
+            for (int i = 0; i < series.length; i++) {
+                if (!Double.isNaN(values[i])) {
+                    series[i].rebase(values[i]);
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Keeps a quarantined row out of the sinks for good.
+     *
+     * @throws IllegalArgumentException if there is no such entry
+     */
+    public QuarantinedRate reject(long id) {
+        return decide(id, QuarantinedRate.Status.REJECTED);
+    }
+
+    private QuarantinedRate decide(long id, QuarantinedRate.Status status) {
+        QuarantinedRate entry = quarantineRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("No quarantined rate with id " + id));
+        entry.setStatus(status);
+        entry.setDecidedAt(LocalDateTime.now());
+        logger.info("Quarantined rate {} ({} scraped at {}) {}", id, entry.getCurrency(), entry.getScrapedAt(),
+                status.name().toLowerCase(Locale.ROOT));
+        return quarantineRepository.save(entry);
+    }
+
+    List<String> check(ExchangeRate rate) {
+        List<String> reasons = new ArrayList<>();
+        double[] values = values(rate);
+
+        if (values[RateKind.TRANSFER_SELL.ordinal()] < values[RateKind.TRANSFER_BUY.ordinal()]) {
+            reasons.add("transfer sell " + rate.getTransferSell() + " is below buy " + rate.getTransferBuy());
+        }
+        if (values[RateKind.BANKNOTE_SELL.ordinal()] < values[RateKind.BANKNOTE_BUY.ordinal()]) {
+            reasons.add("banknote sell " + rate.getBanknoteSell() + " is below buy " + rate.getBanknoteBuy());
+        }
+
+        RollingStats[] series = stats.get(rate.getCurrency());
+        if (series == null) {
+            return reasons;
+        }
+        for (int i = 0; i < series.length; i++) {
+            double value = values[i];
+            RollingStats s = series[i];
+            if (Double.isNaN(value) || s.count() < minSamples) {
+                continue;
+            }
+            double minStdDev = i < KINDS.length ? Math.abs(s.mean()) * minRelativeStdDev : minSpreadStdDev;
+            double deviations = s.deviations(value, minStdDev);
+            if (deviations > zThreshold) {
+                reasons.add(String.format(Locale.ROOT, "%s %.6f is %.1f std devs from its mean %.6f",
+                        seriesName(i), value, deviations, s.mean()));
+            }
+        }
+        return reasons;
+    }
+
+    private void learn(ExchangeRate rate) {
+        RollingStats[] series = series(rate.getCurrency());
+        double[] values = values(rate);
+        for (int i = 0; i < series.length; i++) {
+            if (!Double.isNaN(values[i])) {
+                series[i].add(values[i]);
+            }
+        }
+    }
+
+    // Learns from the last warm-days of rows that are not held, the first time the gate is used
+    private void warmUp() {
+        if (warmedUp) {
+            return;
+        }
+        warmedUp = true;
+        Set<String> held = quarantineRepository.findByStatusNot(QuarantinedRate.Status.APPROVED)
+                .stream().map(entry -> key(entry.getCurrency(), entry.getScrapedAt())).collect(Collectors.toSet());
+        List<ExchangeRate> recent = rateRepository.findByScrapedAtGreaterThanEqualOrderById(
+                LocalDateTime.now().minusDays(warmDays));
+        int learned = 0;
+        for (ExchangeRate rate : recent) {
+            if (!held.contains(key(rate.getCurrency(), rate.getScrapedAt()))) {
+                learn(rate);
+                learned++;
+            }
+        }
+        logger.info("Validation gate learned {} rows of {} currencies from the last {} days",
+                learned, stats.size(), warmDays);
+    }
+
+    private RollingStats[] series(String currency) {
+        return stats.computeIfAbsent(currency, c -> {
+            RollingStats[] series = new RollingStats[KINDS.length + 2];
+            for (int i = 0; i < series.length; i++) {
+                series[i] = new RollingStats(alpha);
+            }
+            return series;
+        });
+    }
+
+    // The four rates in RateKind order, then the spreads relative to the mid; NaN when not quoted
+    private static double[] values(ExchangeRate rate) {
+        double[] values = new double[KINDS.length + 2];
+        values[RateKind.BANKNOTE_BUY.ordinal()] = parse(rate.getBanknoteBuy());
+        values[RateKind.BANKNOTE_SELL.ordinal()] = parse(rate.getBanknoteSell());
+        values[RateKind.TRANSFER_BUY.ordinal()] = parse(rate.getTransferBuy());
+        values[RateKind.TRANSFER_SELL.ordinal()] = parse(rate.getTransferSell());
+        values[TRANSFER_SPREAD] = spread(values[RateKind.TRANSFER_BUY.ordinal()], values[RateKind.TRANSFER_SELL.ordinal()]);
+        values[BANKNOTE_SPREAD] = spread(values[RateKind.BANKNOTE_BUY.ordinal()], values[RateKind.BANKNOTE_SELL.ordinal()]);
+        return values;
+    }
+
+    private static double spread(double buy, double sell) {
+        return (sell - buy) / ((sell + buy) / 2);
+    }
+
+    // Zero and unparseable quotes count as not quoted, as in CurrencyRegistry.conversionRate
+    private static double parse(String text) {
+        if (text == null) {
+            return Double.NaN;
+        }
+        try {
+            double value = Double.parseDouble(text.trim().replace(",", ""));
+            return value == 0 ? Double.NaN : value;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String key(String currency, LocalDateTime scrapedAt) {
+        return currency + "|" + scrapedAt;
+    }
+
+    private static String seriesName(int index) {
+        if (index == TRANSFER_SPREAD) {
+            return "transfer spread";
+        }
+        if (index == BANKNOTE_SPREAD) {
+            return "banknote spread";
+        }
+        return KINDS[index].name().toLowerCase(Locale.ROOT).replace('_', ' ');
+    }
+
+    private static String truncate(String reason) {
+        return reason.length() <= 1000 ? reason : reason.substring(0, 997) + "...";
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.validation;
+
+/**
+ * Exponentially weighted mean and variance of one series, updated in constant time and space.
+ * Recent values weigh {@code alpha}, older ones decay by {@code 1 - alpha} per update.
+ */
+final class RollingStats {
+
+    private final double alpha;
+    private long count;
+    private double mean;
+    private double variance;
+
+    RollingStats(double alpha) {
+        this.alpha = alpha;
+    }
+
+    void add(double value) {
+        if (count == 0) {
+            mean = value;
+            variance = 0;
+        } else {
+            double diff = value - mean;
+            double increment = alpha * diff;
+            mean += increment;
+            variance = (1 - alpha) * (variance + diff * increment);
+        }
+        count++;
+    }
+
+    /**
+     * Moves the mean to {@code value} and keeps the variance, for a level change someone has confirmed.
+     */
+    void rebase(double value) {
+        mean = value;
+        count = Math.max(count, 1);
+    }
+
+    /**
+     * How many standard deviations {@code value} is from the mean, with the deviation floored at
+     * {@code minStdDev} so that a series that has not moved for a while does not flag every small change.
+     */
+    double deviations(double value, double minStdDev) {
+        return Math.abs(value - mean) / Math.max(Math.sqrt(variance), minStdDev);
+    }
+
+    long count() {
+        return count;
+    }
+
+    double mean() {
+        return mean;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Minimal application used to start several nodes against one database in tests.
+ */
+@SpringBootApplication
+public class LeaseTestApplication {
+}
@@ -0,0 +1,92 @@
+package com.example.demo.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateHistoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 10, 1, 16, 0);
+
+    @Test
+    void parsesScaledPrices() {
+        assertEquals(49_550_000L, ScaledPrice.parse("49.55"));
+        assertEquals(334_567L, ScaledPrice.parse(" 0.3345679 "));
+        assertEquals(1_234_000_000L, ScaledPrice.parse("1,234"));
+        assertEquals(ScaledPrice.MISSING, ScaledPrice.parse("N/A"));
+        assertEquals(ScaledPrice.MISSING, ScaledPrice.parse(""));
+        assertEquals(ScaledPrice.MISSING, ScaledPrice.parse(null));
+    }
+
+    @Test
+    void scansRangesAcrossChunks() {
+        RateHistory history = new RateHistory(4);
+        for (int day = 0; day < 10; day++) {
+            assertTrue(history.append("US DOLLAR", START.plusDays(day), "49.5", "49.6", "49.4", String.valueOf(49 + day)));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        assertTrue(history.scan("US DOLLAR", RateKind.TRANSFER_SELL, START.plusDays(3), START.plusDays(7),
+                (second, price) -> seen.add(price / ScaledPrice.SCALE)));
+
+        assertEquals(List.of(52L, 53L, 54L, 55L), seen);
+        assertFalse(history.scan("EURO", RateKind.TRANSFER_SELL, START, START.plusDays(10), (s, p) -> { }));
+    }
+
+    @Test
+    void aggregatesAndSkipsMissingQuotes() {
+        RateHistory history = new RateHistory(4);
+        history.append("EURO", START, "52", "53", "51", "52.5");
+        history.append("EURO", START.plusHours(1), "52", "53", "51", "");
+        history.append("EURO", START.plusHours(2), "52", "53", "51", "53.5");
+        history.append("EURO", START.plusHours(3), "52", "53", "51", "51.5");
+
+        RateStats stats = history.stats("EURO", RateKind.TRANSFER_SELL, START, START.plusDays(1)).orElseThrow();
+
+        assertEquals(3, stats.count());
+        assertEquals(51.5, stats.min(), 1e-9);
+        assertEquals(53.5, stats.max(), 1e-9);
+        assertEquals(52.5, stats.mean(), 1e-9);
+        assertEquals(52.5, stats.first(), 1e-9);
+        assertEquals(51.5, stats.last(), 1e-9);
+        assertEquals(0, history.stats("EURO", RateKind.TRANSFER_SELL, START.minusDays(2), START).orElseThrow().count());
+    }
+
+    @Test
+    void rejectsOutOfOrderPoints() {
+        RateHistory history = new RateHistory();
+        assertTrue(history.append("EURO", START, "52", "53", "51", "52.5"));
+        assertFalse(history.append("EURO", START.minusMinutes(1), "52", "53", "51", "52.5"));
+        assertTrue(history.append("US DOLLAR", START.minusMinutes(1), "49", "49", "49", "49"));
+        assertEquals(2, history.size());
+    }
+
+    @Test
+    void findsTheRateInEffectWithItsValidity() {
+        RateHistory history = new RateHistory(2);
+        history.append("US DOLLAR", START, "49", "49", "49", "49.10");
+        history.append("US DOLLAR", START.plusMinutes(10), "49", "49", "49", "");
+        history.append("US DOLLAR", START.plusMinutes(20), "49", "49", "49", "49.20");
+        history.append("US DOLLAR", START.plusDays(1), "49", "49", "49", "49.30");
+
+        AsOfRate[] found = history.asOf("US DOLLAR", RateKind.TRANSFER_SELL,
+                START.minusSeconds(1), START, START.plusMinutes(15), START.plusHours(5), START.plusDays(3)).orElseThrow();
+
+        assertNull(found[0]);
+        assertEquals(49_100_000L, found[1].scaledPrice());
+        assertEquals(49_100_000L, found[2].scaledPrice(), "empty quote at +10m is stepped over");
+        assertEquals(RateHistory.toSecond(START), found[2].validFromSecond());
+        assertEquals(RateHistory.toSecond(START.plusMinutes(20)), found[2].validToSecond());
+        assertEquals(49_200_000L, found[3].scaledPrice());
+        assertEquals(RateHistory.toSecond(START.plusDays(1)), found[3].validToSecond());
+        assertTrue(found[4].isOpen());
+        assertTrue(history.asOf("EURO", RateKind.TRANSFER_SELL, START).isEmpty());
+    }
+}
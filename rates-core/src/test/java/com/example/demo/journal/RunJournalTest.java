@@ -0,0 +1,100 @@
+package com.example.demo.journal;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunJournalTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 28);
+
+    @Test
+    void recordsStagesOfTheCurrentRun() {
+        RunJournal journal = new RunJournal(10);
+
+        List<String> parsed = journal.record("scheduler", DAY, () -> {
+            List<String> rates = PipelineRun.time(Stage.PARSE, "nbe", () -> List.of("USD", "EUR"), List::size);
+            PipelineRun run = PipelineRun.current().orElseThrow();
+            // a stage on another thread joins the run it is handed
+            CompletableFuture.runAsync(() -> run.run(() ->
+                    PipelineRun.time(Stage.PUSH, "oracle", () -> 2, count -> count))).join();
+            return rates;
+        });
+
+        assertEquals(2, parsed.size());
+        PipelineRun run = journal.recent(10, DAY).get(0);
+        assertEquals("ok", run.getOutcome());
+        assertNotNull(run.getFinishedAt());
+        assertEquals(List.of(Stage.PARSE, Stage.PUSH), run.getStages().stream().map(StageTiming::stage).toList());
+        assertEquals(2, run.getStages().get(1).currencies());
+        assertEquals("oracle", run.getStages().get(1).target());
+        assertTrue(PipelineRun.current().isEmpty());
+    }
+
+    @Test
+    void marksFailedStagesAndRuns() {
+        RunJournal journal = new RunJournal(10);
+
+        assertThrows(IllegalStateException.class, () -> journal.record("manual-push", DAY, () -> {
+            PipelineRun.time(Stage.PARSE, "nbe", () -> List.<String>of(), List::size, List::isEmpty);
+            return PipelineRun.time(Stage.PUSH, "as400", () -> {
+                throw new IllegalStateException("AS400 is down");
+            }, count -> 0);
+        }));
+
+        PipelineRun run = journal.recent(1, null).get(0);
+        assertEquals("failed: AS400 is down", run.getOutcome());
+        assertEquals("failed", run.getStages().get(0).outcome());
+        assertEquals("failed: AS400 is down", run.getStages().get(1).outcome());
+    }
+
+    @Test
+    void keepsOnlyTheLatestRuns() {
+        RunJournal journal = new RunJournal(2);
+        for (int i = 0; i < 3; i++) {
+            journal.record("scheduler", DAY.plusDays(i), () -> null);
+        }
+
+        List<PipelineRun> runs = journal.recent(10, null);
+        assertEquals(List.of(DAY.plusDays(2), DAY.plusDays(1)), runs.stream().map(PipelineRun::getScrapeDate).toList());
+        assertTrue(journal.find(runs.get(0).getId()).isPresent());
+        assertTrue(journal.recent(10, DAY).isEmpty());
+    }
+
+    @Test
+    void emitsFlightRecorderEvents() throws Exception {
+        RunJournal journal = new RunJournal(10);
+        Path file = Files.createTempFile("pipeline", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PipelineStageEvent.class);
+            recording.start();
+            journal.record("scheduler", DAY, () -> PipelineRun.time(Stage.SAVE, "local", () -> List.of(1, 2, 3), List::size));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.example.rates.PipelineStage"))
+                .toList();
+        Files.deleteIfExists(file);
+
+        assertEquals(1, events.size());
+        assertEquals("SAVE", events.get(0).getString("stage"));
+        assertEquals("local", events.get(0).getString("target"));
+        assertEquals(3, events.get(0).getInt("currencyCount"));
+        assertEquals("ok", events.get(0).getString("outcome"));
+        assertEquals(journal.recent(1, null).get(0).getId(), events.get(0).getString("runId"));
+    }
+}
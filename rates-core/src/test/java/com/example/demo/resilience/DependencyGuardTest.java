@@ -0,0 +1,120 @@
+package com.example.demo.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DependencyGuardTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-10-28T14:00:00Z"));
+
+    private DependencyGuard guard(int maxConcurrent, Duration timeout) {
+        return new DependencyGuard("oracle", new CircuitBreaker(2, Duration.ofMinutes(5), clock),
+                maxConcurrent, Duration.ofMillis(50), timeout);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresAndRecoversThroughATrialCall() {
+        DependencyGuard guard = guard(1, Duration.ofMinutes(1));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> guard.call(() -> { throw new IllegalStateException("down"); }));
+        assertEquals(0, guard.call(calls::getAndIncrement, written -> written == 0), "an empty result counts as a failure");
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState());
+
+        assertThrows(DependencyUnavailableException.class, () -> guard.call(calls::incrementAndGet));
+        assertEquals(1, calls.get(), "open circuit refuses without calling");
+
+        clock.advance(Duration.ofMinutes(5));
+        assertThrows(IllegalStateException.class, () -> guard.call(() -> { throw new IllegalStateException("still down"); }));
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState(), "a failed trial reopens at once");
+
+        clock.advance(Duration.ofMinutes(5));
+        assertEquals(2, guard.call(calls::incrementAndGet));
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState());
+        assertEquals(1, guard.getRejections());
+    }
+
+    @Test
+    void refusesCallsBeyondTheBulkhead() throws Exception {
+        DependencyGuard guard = guard(1, Duration.ofMinutes(1));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> guard.call(() -> {
+            inside.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }));
+        holder.start();
+        assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, guard.getInFlight());
+        assertThrows(DependencyUnavailableException.class, () -> guard.call(() -> "second"));
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState(), "a full bulkhead is not the dependency's fault");
+
+        release.countDown();
+        holder.join();
+        assertEquals("third", guard.call(() -> "third"));
+    }
+
+    @Test
+    void boundsJdbcQueryTimeoutsByTheDeadline() {
+        DeadlineJdbcTemplate jdbc = new DeadlineJdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:deadline;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbc.setQueryTimeout(600);
+
+        int outside = jdbc.execute((java.sql.Statement statement) -> statement.getQueryTimeout());
+        int inside = guard(1, Duration.ofSeconds(90)).call(() ->
+                Deadline.within(Duration.ofMinutes(10)).call(() ->
+                        jdbc.execute((java.sql.Statement statement) -> statement.getQueryTimeout())));
+
+        assertEquals(600, outside);
+        assertTrue(inside > 0 && inside <= 90, "query timeout " + inside + " exceeds the guard's 90s");
+
+        Deadline expired = Deadline.after(Duration.ZERO);
+        assertThrows(DeadlineExceededException.class,
+                () -> expired.call(() -> jdbc.queryForObject("SELECT 1", Integer.class)));
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.LeaseTestApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts two application contexts ("nodes") against one shared H2 database and checks that the
+ * lease has exactly one holder at a time.
+ */
+class LeaseLockTest {
+
+    private static final String LEASE = "scrape-pipeline";
+
+    private final String database = "jdbc:h2:mem:lease-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-10-28T14:00:00Z"));
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void onlyOneNodeHoldsTheLease() {
+        LeaseLock a = startNode("node-a");
+        LeaseLock b = startNode("node-b");
+
+        assertTrue(a.tryAcquire(LEASE));
+        assertFalse(b.tryAcquire(LEASE));
+
+        clock.advance(Duration.ofSeconds(20));
+        assertTrue(a.tryAcquire(LEASE), "holder renews");
+        clock.advance(Duration.ofSeconds(20));
+        assertFalse(b.tryAcquire(LEASE), "renewal pushed the expiry out");
+    }
+
+    @Test
+    void failsOverOnceTheLeaderStopsRenewing() {
+        LeaseLock a = startNode("node-a");
+        LeaseLock b = startNode("node-b");
+        assertTrue(a.tryAcquire(LEASE));
+
+        clock.advance(Duration.ofSeconds(29));
+        assertFalse(b.tryAcquire(LEASE));
+
+        clock.advance(Duration.ofSeconds(2));
+        assertTrue(b.tryAcquire(LEASE));
+        assertFalse(a.tryAcquire(LEASE), "old leader must not take it back while the new one holds it");
+    }
+
+    @Test
+    void releaseHandsOverImmediately() {
+        LeaseLock a = startNode("node-a");
+        LeaseLock b = startNode("node-b");
+        assertTrue(a.tryAcquire(LEASE));
+
+        a.release(LEASE);
+
+        assertTrue(b.tryAcquire(LEASE));
+    }
+
+    private LeaseLock startNode(String owner) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(LeaseTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + database,
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "scheduler.lease.owner=" + owner,
+                        "scheduler.lease.ttl=PT30S")
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("leaseClock", clock))
+                .run();
+        nodes.add(context);
+        return context.getBean(LeaseLock.class);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.validation;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.entity.QuarantinedRate;
+import com.example.demo.repository.ExchangeRateRepository;
+import com.example.demo.repository.QuarantinedRateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateValidationGateTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 10, 1, 16, 0);
+
+    private final ExchangeRateRepository rates = mock(ExchangeRateRepository.class);
+    private final QuarantinedRateRepository quarantine = mock(QuarantinedRateRepository.class);
+    private final RateValidationGate gate = new RateValidationGate(rates, quarantine, 0.1, 6, 5, 0.005, 0.002, 30);
+    private long nextId = 1;
+
+    @BeforeEach
+    void learnHistory() {
+        List<ExchangeRate> history = new ArrayList<>();
+        for (int day = 0; day < 20; day++) {
+            double drift = day * 0.01;
+            history.add(rate("US DOLLAR", 48.40 + drift, 48.50 + drift));
+            history.add(rate("YENS(100)", 31.90 + drift, 32.10 + drift));
+        }
+        when(rates.findByScrapedAtGreaterThanEqualOrderById(any())).thenReturn(history);
+        when(quarantine.findByStatusNot(QuarantinedRate.Status.APPROVED)).thenReturn(List.of());
+    }
+
+    @Test
+    void passesNormalDrift() {
+        assertTrue(gate.inspect(List.of(rate("US DOLLAR", 48.62, 48.72), rate("YENS(100)", 32.12, 32.31))).isEmpty());
+    }
+
+    @Test
+    void quarantinesAYenRateNotDividedBy100() {
+        List<QuarantinedRate> held = gate.inspect(List.of(rate("YENS(100)", 3212, 3231), rate("US DOLLAR", 48.62, 48.72)));
+
+        assertEquals(1, held.size());
+        assertEquals("YENS(100)", held.get(0).getCurrency());
+        assertEquals(QuarantinedRate.Status.PENDING, held.get(0).getStatus());
+        assertTrue(held.get(0).getReason().contains("transfer sell"), held.get(0).getReason());
+    }
+
+    @Test
+    void flagsSwappedBuyAndSell() {
+        List<QuarantinedRate> held = gate.inspect(List.of(rate("US DOLLAR", 48.72, 48.62)));
+
+        assertEquals(1, held.size());
+        assertTrue(held.get(0).getReason().contains("below buy"), held.get(0).getReason());
+    }
+
+    @Test
+    void acceptsAJumpOnceApproved() {
+        ExchangeRate devalued = rate("US DOLLAR", 52.40, 52.50);
+        QuarantinedRate entry = gate.inspect(List.of(devalued)).get(0);
+        entry.setId(7L);
+        when(quarantine.findById(7L)).thenReturn(Optional.of(entry));
+        when(quarantine.save(any())).thenAnswer(call -> call.getArgument(0));
+        when(rates.findByScrapedAtBetween(devalued.getScrapedAt(), devalued.getScrapedAt())).thenReturn(List.of(devalued));
+
+        assertEquals(QuarantinedRate.Status.APPROVED, gate.approve(7L).getStatus());
+        assertTrue(gate.inspect(List.of(rate("US DOLLAR", 52.45, 52.55))).isEmpty());
+    }
+
+    @Test
+    void releasesAllButHeldRows() {
+        ExchangeRate ok = rate("US DOLLAR", 48.62, 48.72);
+        ExchangeRate held = rate("YENS(100)", 3212, 3231);
+        when(quarantine.findByScrapedAtBetweenAndStatusNot(any(), any(), any()))
+                .thenReturn(List.of(hold(held)));
+
+        assertEquals(List.of(ok), gate.releasable(List.of(ok, held)));
+    }
+
+    @Test
+    void keepsHoldingARowReplayedUnderANewId() {
+        ExchangeRate held = rate("YENS(100)", 3212, 3231);
+        QuarantinedRate entry = hold(held);
+        ExchangeRate replayed = ExchangeRate.builder()
+                .id(held.getId() + 1000)
+                .currency(held.getCurrency())
+                .transferBuy(held.getTransferBuy())
+                .transferSell(held.getTransferSell())
+                .scrapedAt(held.getScrapedAt())
+                .build();
+        when(quarantine.findByScrapedAtBetweenAndStatusNot(replayed.getScrapedAt(), replayed.getScrapedAt(),
+                QuarantinedRate.Status.APPROVED)).thenReturn(List.of(entry));
+
+        assertTrue(gate.releasable(List.of(replayed)).isEmpty());
+    }
+
+    private static QuarantinedRate hold(ExchangeRate rate) {
+        return QuarantinedRate.builder()
+                .rateId(rate.getId())
+                .currency(rate.getCurrency())
+                .scrapedAt(rate.getScrapedAt())
+                .status(QuarantinedRate.Status.PENDING)
+                .build();
+    }
+
+    private ExchangeRate rate(String currency, double transferBuy, double transferSell) {
+        return ExchangeRate.builder()
+                .id(nextId++)
+                .currency(currency)
+                .transferBuy(String.valueOf(transferBuy))
+                .transferSell(String.valueOf(transferSell))
+                .banknoteBuy(String.valueOf(transferBuy))
+                .banknoteSell(String.valueOf(transferSell))
+                .scrapedAt(START.plusDays(nextId / 2))
+                .build();
+    }
+}
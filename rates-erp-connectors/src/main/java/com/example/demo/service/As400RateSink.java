@@ -0,0 +1,78 @@
+package com.example.demo.service;
+
+import com.example.demo.resilience.DeadlineJdbcTemplate;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * AS400: two-letter currency codes in ACCOUNT.EXRATE, keyed by year, month and day.
+ */
+@Component
+@Order(2)
+public class As400RateSink implements RateSink {
+
+    private static final String EXISTS_SQL = "SELECT COUNT(*) FROM ACCOUNT.EXRATE WHERE EXYY = ? AND EXMM = ? AND EXDD = ?";
+
+    private final As400RateWriter writer;
+    private final int dateOffsetDays;
+
+    public As400RateSink(As400RateWriter writer, RateSinkProperties properties) {
+        this.writer = writer;
+        this.dateOffsetDays = properties.target("as400").getDateOffsetDays();
+    }
+
+    @Override
+    public String name() {
+        return "as400";
+    }
+
+    @Override
+    public String displayName() {
+        return "AS400";
+    }
+
+    @Override
+    public String currencyCode(String currencyName) {
+        return CurrencyRegistry.as400Code(currencyName);
+    }
+
+    @Override
+    public LocalDate targetDate(LocalDate scrapeDate) {
+        return scrapeDate.plusDays(dateOffsetDays);
+    }
+
+    @Override
+    public int write(List<ErpRate> rates) {
+        return writer.upsert(rates);
+    }
+
+    /**
+     * Failures propagate, like the Oracle probe's, so the {@code as400} guard counts them and a dead
+     * AS400 is not reported as "nothing pushed yet".
+     */
+    @Override
+    public boolean hasRatesFor(LocalDate targetDate) {
+        Connection connection;
+        try {
+            connection = Utils.getAS400Connection();
+        } catch (Exception e) {
+            throw new IllegalStateException("Error connecting to AS400: " + e.getMessage(), e);
+        }
+        if (connection == null) {
+            throw new IllegalStateException("AS400 connection is null. Cannot check existing data.");
+        }
+        try {
+            Integer count = new DeadlineJdbcTemplate(new SingleConnectionDataSource(connection, true))
+                    .queryForObject(EXISTS_SQL, Integer.class,
+                            targetDate.getYear(), targetDate.getMonthValue(), targetDate.getDayOfMonth());
+            return count != null && count > 0;
+        } finally {
+            Utils.closeAS400Connection(connection);
+        }
+    }
+}
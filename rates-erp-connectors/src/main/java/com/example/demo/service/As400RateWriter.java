@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.resilience.DeadlineJdbcTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Writes rates to AS400 {@code ACCOUNT.EXRATE} with a MERGE keyed on (year, month, day, currency),
+ * so pushing the same day twice updates the existing rows instead of duplicating them.
+ */
+@Component
+public class As400RateWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(As400RateWriter.class);
+
+    static final String MERGE_SQL =
+            "MERGE INTO ACCOUNT.EXRATE t " +
+            "USING (VALUES (CAST(? AS INTEGER), CAST(? AS INTEGER), CAST(? AS INTEGER), CAST(? AS CHAR(2)), " +
+            "CAST(? AS DECIMAL(15, 6)))) AS s (EXYY, EXMM, EXDD, EXCUR, EXAMT) " +
+            "ON (t.EXYY = s.EXYY AND t.EXMM = s.EXMM AND t.EXDD = s.EXDD AND t.EXCUR = s.EXCUR) " +
+            "WHEN MATCHED THEN UPDATE SET EXAMT = s.EXAMT " +
+            "WHEN NOT MATCHED THEN INSERT (EXYY, EXMM, EXDD, EXCUR, EXAMT) " +
+            "VALUES (s.EXYY, s.EXMM, s.EXDD, s.EXCUR, s.EXAMT)";
+
+    /**
+     * Opens an AS400 connection, upserts the rates and closes it again.
+     *
+     * @return number of rates written
+     */
+    public int upsert(List<ErpRate> rates) {
+        if (rates.isEmpty()) {
+            return 0;
+        }
+        Connection connection;
+        try {
+            connection = Utils.getAS400Connection();
+        } catch (Exception e) {
+            logger.error("Error connecting to AS400: {}", e.getMessage(), e);
+            return 0;
+        }
+        if (connection == null) {
+            logger.error("AS400 connection is null. Aborting push.");
+            return 0;
+        }
+        try {
+            return upsert(connection, rates);
+        } finally {
+            Utils.closeAS400Connection(connection);
+        }
+    }
+
+    /**
+     * Upserts the rates on the given connection in one batch. If the batch fails, falls back to
+     * one statement per rate so a single bad row does not block the rest.
+     */
+    public int upsert(Connection connection, List<ErpRate> rates) {
+        JdbcTemplate template = new DeadlineJdbcTemplate(new SingleConnectionDataSource(connection, true));
+        try {
+            template.batchUpdate(MERGE_SQL, rates.stream().map(As400RateWriter::toArgs).toList());
+            return rates.size();
+        } catch (DataAccessException e) {
+            logger.warn("AS400 batch merge of {} rates failed, retrying one by one: {}", rates.size(), e.getMessage());
+        }
+
+        int written = 0;
+        for (ErpRate rate : rates) {
+            try {
+                template.update(MERGE_SQL, toArgs(rate));
+                written++;
+            } catch (DataAccessException e) {
+                logger.error("Failed to merge currency {} into AS400: {}", rate.currencyCode(), e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private static Object[] toArgs(ErpRate rate) {
+        return new Object[]{
+                rate.targetDate().getYear(),
+                rate.targetDate().getMonthValue(),
+                rate.targetDate().getDayOfMonth(),
+                rate.currencyCode(),
+                rate.rate()
+        };
+    }
+}
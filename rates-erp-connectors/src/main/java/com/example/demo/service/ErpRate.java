@@ -0,0 +1,10 @@
+package com.example.demo.service;
+
+import java.time.LocalDate;
+
+/**
+ * One rate as a downstream ERP stores it: target (conversion) date, system-specific
+ * currency code and the conversion rate to EGP.
+ */
+public record ErpRate(LocalDate targetDate, String currencyCode, double rate) {
+}
@@ -0,0 +1,123 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.repository.ExchangeRateRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+
+/**
+ * Pushes scraped rates to the configured {@link RateSink}s (Oracle GL and AS400 by default), and
+ * reports whether they are already there.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExchangeRatePushService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeRatePushService.class);
+    private final ExchangeRateRepository repository;
+    private final RateSinkFanout fanout;
+
+    public List<String> sinkNames() {
+        return fanout.sinkNames();
+    }
+
+    public RateSink sink(String name) {
+        return fanout.sink(name);
+    }
+
+    public boolean isAlreadyPushed(String sink, LocalDate today) {
+        return fanout.hasRatesFor(sink, today);
+    }
+
+    /**
+     * Upserts the day's valid rates into one sink under its target date.
+     * Safe to call repeatedly for the same day.
+     */
+    public SinkResult pushValidRates(String sink, List<ExchangeRate> rates, LocalDate today) {
+        return fanout.push(rates, today, List.of(sink)).get(0);
+    }
+
+    /**
+     * Re-pushes one scrape date's rates to every sink, e.g. after a quarantined rate was approved.
+     */
+    public List<SinkResult> pushDay(LocalDate scrapeDate) {
+        List<ExchangeRate> rates = repository.findByScrapedAtBetween(
+                scrapeDate.atStartOfDay(), scrapeDate.plusDays(1).atStartOfDay());
+        return rates.isEmpty() ? List.of() : fanout.pushToAll(rates, scrapeDate);
+    }
+
+    // ✅ NEW: Push back days to the given sinks (auto-fill missing dates)
+    // Each day is read once and sent to all sinks in parallel. Pushes are idempotent upserts,
+    // so dates already in a sink are simply re-merged
+    @Transactional
+    public Map<String, Object> pushBackDays(Collection<String> sinks, int daysBack) {
+        LocalDate today = LocalDate.now();
+        Map<String, BackfillTally> tallies = new LinkedHashMap<>();
+        for (String sink : sinks) {
+            tallies.put(sink, new BackfillTally());
+        }
+
+        logger.info("Starting back days push to {} for {} days", sinks, daysBack);
+
+        for (int i = 0; i <= daysBack; i++) {
+            LocalDate processDate = today.minusDays(i);
+
+            // Get rates from our database
+            List<ExchangeRate> rates = repository.findByScrapedAtBetween(
+                    processDate.atStartOfDay(),
+                    processDate.plusDays(1).atStartOfDay()
+            );
+
+            if (rates.isEmpty()) {
+                logger.warn("No scraped data found for date: {}, skipping", processDate);
+                tallies.values().forEach(tally -> tally.skippedDates.add(processDate + " (no data)"));
+                continue;
+            }
+
+            for (SinkResult result : fanout.push(rates, processDate, sinks)) {
+                BackfillTally tally = tallies.get(result.sink());
+                if (result.written() > 0) {
+                    tally.successCount++;
+                    tally.processedDates.add(result.targetDate() + " (" + result.written() + " records)");
+                    logger.info("Successfully pushed {} rates to {} for target date: {}",
+                            result.written(), result.displayName(), result.targetDate());
+                } else if (result.error() != null) {
+                    tally.failedDates.add(result.targetDate() + " (" + result.error() + ")");
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        tallies.forEach((sink, tally) -> result.put(sink, Map.of(
+                "totalDaysProcessed", daysBack + 1,
+                "successfulPushes", tally.successCount,
+                "skippedDates", tally.skippedDates.size(),
+                "processedDates", tally.processedDates,
+                "skippedDatesList", tally.skippedDates,
+                "failedDatesList", tally.failedDates
+        )));
+        result.put("totalDaysProcessed", daysBack + 1);
+
+        logger.info("Back days push completed: {}", result);
+        return result;
+    }
+
+    private static final class BackfillTally {
+        int successCount;
+        final List<String> processedDates = new ArrayList<>();
+        final List<String> skippedDates = new ArrayList<>();
+        final List<String> failedDates = new ArrayList<>();
+    }
+}
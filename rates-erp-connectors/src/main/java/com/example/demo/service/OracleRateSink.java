@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Oracle GL: ISO currency codes, merged into GL_DAILY_RATES_INTERFACE and checked in GL_DAILY_RATES.
+ */
+@Component
+@Order(1)
+public class OracleRateSink implements RateSink {
+
+    private static final String EXISTS_SQL =
+            "SELECT COUNT(*) FROM apps.GL_DAILY_RATES WHERE CONVERSION_DATE = ? AND TO_CURRENCY ='EGP'";
+
+    private final OracleRateWriter writer;
+    private final JdbcTemplate jdbcTemplate;
+    private final int dateOffsetDays;
+
+    public OracleRateSink(OracleRateWriter writer, JdbcTemplate jdbcTemplate, RateSinkProperties properties) {
+        this.writer = writer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dateOffsetDays = properties.target("oracle").getDateOffsetDays();
+    }
+
+    @Override
+    public String name() {
+        return "oracle";
+    }
+
+    @Override
+    public String displayName() {
+        return "Oracle";
+    }
+
+    @Override
+    public String currencyCode(String currencyName) {
+        return CurrencyRegistry.oracleCode(currencyName);
+    }
+
+    @Override
+    public LocalDate targetDate(LocalDate scrapeDate) {
+        return scrapeDate.plusDays(dateOffsetDays);
+    }
+
+    @Override
+    public int write(List<ErpRate> rates) {
+        return writer.upsert(rates);
+    }
+
+    @Override
+    public boolean hasRatesFor(LocalDate targetDate) {
+        Integer count = jdbcTemplate.queryForObject(EXISTS_SQL, Integer.class, java.sql.Date.valueOf(targetDate));
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes rates to the Oracle GL daily rates interface with a MERGE keyed on
+ * (from currency, to currency, conversion date, conversion type), so pushing the same day
+ * twice updates the pending row instead of duplicating it.
+ */
+@Component
+@RequiredArgsConstructor
+public class OracleRateWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OracleRateWriter.class);
+
+    static final String MERGE_SQL =
+            "MERGE INTO apps.GL_DAILY_RATES_INTERFACE t " +
+            "USING (SELECT CAST(? AS VARCHAR2(15)) AS FROM_CURRENCY, CAST(? AS VARCHAR2(15)) AS TO_CURRENCY, " +
+            "CAST(? AS DATE) AS CONVERSION_DATE, CAST(? AS VARCHAR2(30)) AS USER_CONVERSION_TYPE, " +
+            "CAST(? AS NUMBER) AS CONVERSION_RATE, CAST(? AS NUMBER) AS USER_ID FROM dual) s " +
+            "ON (t.FROM_CURRENCY = s.FROM_CURRENCY AND t.TO_CURRENCY = s.TO_CURRENCY " +
+            "AND t.FROM_CONVERSION_DATE = s.CONVERSION_DATE AND t.USER_CONVERSION_TYPE = s.USER_CONVERSION_TYPE) " +
+            "WHEN MATCHED THEN UPDATE SET CONVERSION_RATE = s.CONVERSION_RATE, TO_CONVERSION_DATE = s.CONVERSION_DATE, " +
+            "USER_ID = s.USER_ID, MODE_FLAG = 'I' " +
+            "WHEN NOT MATCHED THEN INSERT (FROM_CURRENCY, TO_CURRENCY, FROM_CONVERSION_DATE, TO_CONVERSION_DATE, " +
+            "USER_CONVERSION_TYPE, CONVERSION_RATE, USER_ID, MODE_FLAG) " +
+            "VALUES (s.FROM_CURRENCY, s.TO_CURRENCY, s.CONVERSION_DATE, s.CONVERSION_DATE, " +
+            "s.USER_CONVERSION_TYPE, s.CONVERSION_RATE, s.USER_ID, 'I')";
+
+    private static final String TO_CURRENCY = "EGP";
+    private static final String CONVERSION_TYPE = "Corporate";
+    private static final int USER_ID = 1116;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Upserts the rates in one batch. If the batch fails, falls back to one statement per
+     * rate so a single bad row does not block the rest; this is safe because MERGE is idempotent.
+     *
+     * @return number of rates written
+     */
+    public int upsert(List<ErpRate> rates) {
+        if (rates.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(MERGE_SQL, rates.stream().map(OracleRateWriter::toArgs).toList());
+            return rates.size();
+        } catch (DataAccessException e) {
+            logger.warn("Oracle batch merge of {} rates failed, retrying one by one: {}", rates.size(), e.getMessage());
+        }
+
+        int written = 0;
+        for (ErpRate rate : rates) {
+            try {
+                jdbcTemplate.update(MERGE_SQL, toArgs(rate));
+                written++;
+            } catch (DataAccessException e) {
+                logger.error("Failed to merge currency {} into Oracle: {}", rate.currencyCode(), e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private static Object[] toArgs(ErpRate rate) {
+        return new Object[]{
+                rate.currencyCode(),
+                TO_CURRENCY,
+                java.sql.Date.valueOf(rate.targetDate()),
+                CONVERSION_TYPE,
+                rate.rate(),
+                USER_ID
+        };
+    }
+}
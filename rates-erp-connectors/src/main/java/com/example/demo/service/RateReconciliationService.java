@@ -0,0 +1,306 @@
+package com.example.demo.service;
+
+import com.example.demo.resilience.DeadlineJdbcTemplate;
+import com.example.demo.resilience.DependencyGuard;
+import com.example.demo.resilience.DependencyGuards;
+import com.example.demo.service.ReconciliationReport.Difference;
+import com.example.demo.service.ReconciliationReport.DifferenceType;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Compares the locally scraped rates with what Oracle GL and AS400 actually hold.
+ * <p>
+ * Each side is read with a single range query ordered by date and consumed as a stream, one
+ * day at a time, so memory stays bounded by the number of currencies per day no matter how
+ * long the range is. The two day streams are merge-joined on (target date, currency code).
+ * With {@code repair} set, missing and mismatched rows are upserted back in batches.
+ * <p>
+ * A whole run, reads and repairs, is one call through the target's {@link DependencyGuard}: it takes
+ * the target's bulkhead slot, counts against its circuit and runs under its timeout, which every
+ * statement inherits through {@link DeadlineJdbcTemplate}. Split long ranges that do not fit.
+ */
+@Service
+@RequiredArgsConstructor
+public class RateReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateReconciliationService.class);
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int REPAIR_BATCH_SIZE = 500;
+    private static final int MAX_LISTED_DIFFERENCES = 1000;
+    private static final double TOLERANCE = 0.00005;
+
+    private static final String LOCAL_RATES_SQL =
+            "SELECT CURRENCY, TRANSFER_SELL, BANKNOTE_SELL, SCRAPED_AT FROM EXCHANGE_RATE " +
+            "WHERE SCRAPED_AT >= ? AND SCRAPED_AT < ? ORDER BY SCRAPED_AT";
+
+    private static final String ORACLE_RATES_SQL =
+            "SELECT CONVERSION_DATE, FROM_CURRENCY, CONVERSION_RATE FROM apps.GL_DAILY_RATES " +
+            "WHERE CONVERSION_DATE BETWEEN ? AND ? AND TO_CURRENCY = 'EGP' AND CONVERSION_TYPE = 'Corporate' " +
+            "ORDER BY CONVERSION_DATE";
+
+    // the bare EXYY range lets DB2 seek on the (EXYY, EXMM, EXDD) key; the computed date only trims the edge years
+    private static final String AS400_RATES_SQL =
+            "SELECT EXYY, EXMM, EXDD, EXCUR, EXAMT FROM ACCOUNT.EXRATE " +
+            "WHERE EXYY BETWEEN ? AND ? AND EXYY * 10000 + EXMM * 100 + EXDD BETWEEN ? AND ? " +
+            "ORDER BY EXYY, EXMM, EXDD";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OracleRateWriter oracleRateWriter;
+    private final As400RateWriter as400RateWriter;
+    private final DependencyGuards guards;
+
+    private record DatedRate(LocalDate targetDate, String code, double rate) {
+    }
+
+    /**
+     * Reconciles scrape dates {@code from}..{@code to} (inclusive) against Oracle GL,
+     * which holds them under the following day.
+     */
+    public ReconciliationReport reconcileOracle(LocalDate from, LocalDate to, boolean repair) {
+        return guards.guard("oracle").call(() -> compareOracle(from, to, repair));
+    }
+
+    private ReconciliationReport compareOracle(LocalDate from, LocalDate to, boolean repair) {
+        ReconciliationReport report = new ReconciliationReport("Oracle", from, to, MAX_LISTED_DIFFERENCES);
+        Repairer repairer = repair ? new Repairer(oracleRateWriter::upsert) : null;
+
+        try (Stream<DatedRate> local = localRates(from, to, CurrencyRegistry::oracleCode);
+             Stream<DatedRate> remote = jdbcTemplate.queryForStream(con -> {
+                 PreparedStatement ps = con.prepareStatement(ORACLE_RATES_SQL);
+                 ps.setFetchSize(FETCH_SIZE);
+                 ps.setDate(1, java.sql.Date.valueOf(from.plusDays(1)));
+                 ps.setDate(2, java.sql.Date.valueOf(to.plusDays(1)));
+                 return ps;
+             }, (rs, i) -> new DatedRate(rs.getDate(1).toLocalDate(), rs.getString(2), rs.getDouble(3)))) {
+
+            mergeJoin(local.iterator(), onlyKnownCodes(remote, CurrencyRegistry.oracleCodes()).iterator(),
+                    report, repairer == null ? null : repairer::add);
+            if (repairer != null) {
+                repairer.flush();
+                report.setRepaired(repairer.repaired);
+            }
+        }
+
+        logger.info("Oracle reconciliation {}..{}: {} matched, {} missing, {} extra, {} mismatched, {} repaired",
+                from, to, report.getMatched(), report.getMissing(), report.getExtra(),
+                report.getMismatched(), report.getRepaired());
+        return report;
+    }
+
+    /**
+     * Reconciles scrape dates {@code from}..{@code to} (inclusive) against AS400 ACCOUNT.EXRATE,
+     * which holds them under the following day.
+     */
+    public ReconciliationReport reconcileAs400(LocalDate from, LocalDate to, boolean repair) {
+        return guards.guard("as400").call(() -> {
+            Connection connection = openAs400Connection();
+            try {
+                return reconcileAs400(connection, from, to, repair);
+            } finally {
+                Utils.closeAS400Connection(connection);
+            }
+        });
+    }
+
+    ReconciliationReport reconcileAs400(Connection connection, LocalDate from, LocalDate to, boolean repair) {
+        ReconciliationReport report = new ReconciliationReport("AS400", from, to, MAX_LISTED_DIFFERENCES);
+
+        // the writer opens its own AS400 connection per batch, so the streaming read cursor is not disturbed
+        Repairer repairer = repair ? new Repairer(as400RateWriter::upsert) : null;
+        JdbcTemplate as400 = new DeadlineJdbcTemplate(new SingleConnectionDataSource(connection, true));
+        LocalDate remoteFrom = from.plusDays(1);
+        LocalDate remoteTo = to.plusDays(1);
+
+        try (Stream<DatedRate> local = localRates(from, to, CurrencyRegistry::as400Code);
+             Stream<DatedRate> remote = as400.queryForStream(con -> {
+                 PreparedStatement ps = con.prepareStatement(AS400_RATES_SQL);
+                 ps.setFetchSize(FETCH_SIZE);
+                 ps.setInt(1, remoteFrom.getYear());
+                 ps.setInt(2, remoteTo.getYear());
+                 ps.setInt(3, dateKey(remoteFrom));
+                 ps.setInt(4, dateKey(remoteTo));
+                 return ps;
+             }, (rs, i) -> new DatedRate(
+                     LocalDate.of(rs.getInt(1), rs.getInt(2), rs.getInt(3)),
+                     rs.getString(4).trim(),
+                     rs.getDouble(5)))) {
+
+            mergeJoin(local.iterator(), onlyKnownCodes(remote, CurrencyRegistry.as400Codes()).iterator(),
+                    report, repairer == null ? null : repairer::add);
+            if (repairer != null) {
+                repairer.flush();
+                report.setRepaired(repairer.repaired);
+            }
+        }
+
+        logger.info("AS400 reconciliation {}..{}: {} matched, {} missing, {} extra, {} mismatched, {} repaired",
+                from, to, report.getMatched(), report.getMissing(), report.getExtra(),
+                report.getMismatched(), report.getRepaired());
+        return report;
+    }
+
+    private Stream<DatedRate> localRates(LocalDate from, LocalDate to, Function<String, String> codeMapper) {
+        return jdbcTemplate.queryForStream(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCAL_RATES_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setTimestamp(1, java.sql.Timestamp.valueOf(from.atStartOfDay()));
+            ps.setTimestamp(2, java.sql.Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            return ps;
+        }, (rs, i) -> {
+            String code = codeMapper.apply(rs.getString(1));
+            OptionalDouble rate = CurrencyRegistry.conversionRate(rs.getString(2), rs.getString(3));
+            if (code == null || rate.isEmpty()) {
+                return null;
+            }
+            LocalDate scrapeDate = rs.getTimestamp(4).toLocalDateTime().toLocalDate();
+            return new DatedRate(scrapeDate.plusDays(1), code, rate.getAsDouble());
+        }).filter(Objects::nonNull);
+    }
+
+    private static Stream<DatedRate> onlyKnownCodes(Stream<DatedRate> rows, Collection<String> codes) {
+        Set<String> known = Set.copyOf(codes);
+        return rows.filter(row -> known.contains(row.code()));
+    }
+
+    private static void mergeJoin(Iterator<DatedRate> localRows, Iterator<DatedRate> remoteRows,
+                                  ReconciliationReport report, Consumer<Difference> repairs) {
+        DayCursor local = new DayCursor(localRows);
+        DayCursor remote = new DayCursor(remoteRows);
+
+        while (local.peekDate() != null || remote.peekDate() != null) {
+            LocalDate localDate = local.peekDate();
+            LocalDate remoteDate = remote.peekDate();
+            int cmp = localDate == null ? 1 : remoteDate == null ? -1 : localDate.compareTo(remoteDate);
+
+            LocalDate date = cmp <= 0 ? localDate : remoteDate;
+            Map<String, Double> localDay = cmp <= 0 ? local.nextDay() : Map.of();
+            Map<String, Double> remoteDay = cmp >= 0 ? remote.nextDay() : Map.of();
+
+            compareDay(date, localDay, remoteDay, report, repairs);
+            report.setDaysCompared(report.getDaysCompared() + 1);
+        }
+    }
+
+    private static void compareDay(LocalDate date, Map<String, Double> localDay, Map<String, Double> remoteDay,
+                                   ReconciliationReport report, Consumer<Difference> repairs) {
+        TreeSet<String> codes = new TreeSet<>(localDay.keySet());
+        codes.addAll(remoteDay.keySet());
+
+        for (String code : codes) {
+            Double localRate = localDay.get(code);
+            Double remoteRate = remoteDay.get(code);
+            Difference difference;
+            if (remoteRate == null) {
+                difference = new Difference(DifferenceType.MISSING, date, code, localRate, null);
+            } else if (localRate == null) {
+                difference = new Difference(DifferenceType.EXTRA, date, code, null, remoteRate);
+            } else if (Math.abs(localRate - remoteRate) > TOLERANCE) {
+                difference = new Difference(DifferenceType.MISMATCH, date, code, localRate, remoteRate);
+            } else {
+                report.setMatched(report.getMatched() + 1);
+                continue;
+            }
+
+            report.record(difference);
+            if (repairs != null && difference.type() != DifferenceType.EXTRA) {
+                repairs.accept(difference);
+            }
+        }
+    }
+
+    private static Connection openAs400Connection() {
+        Connection connection;
+        try {
+            connection = Utils.getAS400Connection();
+        } catch (Exception e) {
+            throw new IllegalStateException("Error connecting to AS400: " + e.getMessage(), e);
+        }
+        if (connection == null) {
+            throw new IllegalStateException("AS400 connection is null.");
+        }
+        return connection;
+    }
+
+    private static int dateKey(LocalDate date) {
+        return date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    /**
+     * Groups a date-ordered row iterator into one map per day. Later rows for the same
+     * currency overwrite earlier ones, so the latest scrape of the day wins.
+     */
+    private static final class DayCursor {
+        private final Iterator<DatedRate> rows;
+        private DatedRate pending;
+
+        DayCursor(Iterator<DatedRate> rows) {
+            this.rows = rows;
+            this.pending = rows.hasNext() ? rows.next() : null;
+        }
+
+        LocalDate peekDate() {
+            return pending == null ? null : pending.targetDate();
+        }
+
+        Map<String, Double> nextDay() {
+            LocalDate date = pending.targetDate();
+            Map<String, Double> day = new TreeMap<>();
+            while (pending != null && pending.targetDate().equals(date)) {
+                day.put(pending.code(), pending.rate());
+                pending = rows.hasNext() ? rows.next() : null;
+            }
+            return day;
+        }
+    }
+
+    /**
+     * Buffers missing and mismatched rates and upserts them through the target's writer in batches.
+     */
+    private static final class Repairer {
+        private final Function<List<ErpRate>, Integer> writer;
+        private final List<ErpRate> batch = new ArrayList<>();
+        private int repaired;
+
+        Repairer(Function<List<ErpRate>, Integer> writer) {
+            this.writer = writer;
+        }
+
+        void add(Difference difference) {
+            batch.add(new ErpRate(difference.targetDate(), difference.currencyCode(), difference.localRate()));
+            if (batch.size() >= REPAIR_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            repaired += writer.apply(List.copyOf(batch));
+            batch.clear();
+        }
+    }
+}
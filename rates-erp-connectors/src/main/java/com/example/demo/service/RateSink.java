@@ -0,0 +1,43 @@
+package com.example.demo.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A downstream system that receives the scraped rates. Implement this as a Spring bean to add a
+ * target; {@link RateSinkFanout} picks it up and its settings come from {@code rates.sinks.<name>.*}.
+ */
+public interface RateSink {
+
+    /**
+     * Key used in URLs and configuration, e.g. {@code oracle}.
+     */
+    String name();
+
+    /**
+     * Name shown in notifications and reports, e.g. {@code Oracle}.
+     */
+    String displayName();
+
+    /**
+     * The code this system uses for an NBE currency name, or null if the currency is not sent.
+     */
+    String currencyCode(String currencyName);
+
+    /**
+     * The date a day's scrape is stored under in this system.
+     */
+    LocalDate targetDate(LocalDate scrapeDate);
+
+    /**
+     * Upserts the rates. Must be idempotent, since pushes are repeated after restarts and by backfills.
+     *
+     * @return number of rates written
+     */
+    int write(List<ErpRate> rates);
+
+    /**
+     * Whether the system already holds rates for the given target date.
+     */
+    boolean hasRatesFor(LocalDate targetDate);
+}
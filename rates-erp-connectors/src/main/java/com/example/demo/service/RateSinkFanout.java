@@ -0,0 +1,170 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.journal.PipelineRun;
+import com.example.demo.journal.Stage;
+import com.example.demo.resilience.Deadline;
+import com.example.demo.resilience.DependencyGuard;
+import com.example.demo.resilience.DependencyGuards;
+import com.example.demo.resilience.DependencyUnavailableException;
+import com.example.demo.validation.RateValidationGate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Sends a day's rates to every enabled {@link RateSink} at once and collects one {@link SinkResult} per sink.
+ * <p>
+ * Each sink runs on its own task, so a slow AS400 does not hold up Oracle. Calls to a sink go through
+ * the {@link DependencyGuard} of the same name: its bulkhead limits writes across callers (a backfill and
+ * the scheduler queue up on the same slots), its circuit breaker skips a sink that keeps failing, and its
+ * timeout bounds the JDBC statements. The caller's {@link Deadline} and {@link PipelineRun}, if any, are
+ * carried onto the tasks.
+ * <p>
+ * Every push path (scheduler, manual push, backfill, approval re-push) ends here, so this is also where
+ * rows held by the {@link RateValidationGate} are dropped. Holds are keyed on currency and scrape time,
+ * so they also cover a row an archive replay re-created.
+ */
+@Service
+public class RateSinkFanout {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateSinkFanout.class);
+
+    private final Map<String, RateSink> sinks = new LinkedHashMap<>();
+    private final DependencyGuards guards;
+    private final RateValidationGate gate;
+    private final AsyncTaskExecutor taskExecutor;
+
+    public RateSinkFanout(List<RateSink> allSinks, RateSinkProperties properties, DependencyGuards guards,
+                          RateValidationGate gate,
+                          @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor) {
+        this.guards = guards;
+        this.gate = gate;
+        this.taskExecutor = taskExecutor;
+        for (RateSink sink : allSinks) {
+            RateSinkProperties.Target target = properties.target(sink.name());
+            if (!target.isEnabled()) {
+                logger.info("Rate sink {} is disabled", sink.name());
+                continue;
+            }
+            sinks.put(sink.name(), sink);
+        }
+        logger.info("Pushing rates to {}", sinks.keySet());
+    }
+
+    /**
+     * Names of the enabled sinks, in push order.
+     */
+    public List<String> sinkNames() {
+        return List.copyOf(sinks.keySet());
+    }
+
+    /**
+     * The enabled sink with this name.
+     *
+     * @throws IllegalArgumentException if there is none
+     */
+    public RateSink sink(String name) {
+        RateSink sink = sinks.get(name);
+        if (sink == null) {
+            throw new IllegalArgumentException("Unknown rate sink '" + name + "', expected one of " + sinks.keySet());
+        }
+        return sink;
+    }
+
+    /**
+     * Whether the sink already holds the rates of this scrape date.
+     */
+    public boolean hasRatesFor(String name, LocalDate scrapeDate) {
+        RateSink sink = sink(name);
+        return PipelineRun.time(Stage.EXISTENCE_PROBE, name,
+                () -> guards.guard(name).call(() -> sink.hasRatesFor(sink.targetDate(scrapeDate))), found -> 0);
+    }
+
+    public List<SinkResult> pushToAll(List<ExchangeRate> rates, LocalDate scrapeDate) {
+        return push(rates, scrapeDate, sinks.keySet());
+    }
+
+    /**
+     * Pushes one scrape date's rates to the named sinks in parallel and waits for all of them.
+     * A sink that throws, times out or is refused by its guard is reported in its result; the others
+     * are not affected. Quarantined rows are left out.
+     */
+    public List<SinkResult> push(List<ExchangeRate> scraped, LocalDate scrapeDate, Collection<String> names) {
+        List<ExchangeRate> rates = gate.releasable(scraped);
+        Deadline deadline = Deadline.current().orElse(null);
+        PipelineRun run = PipelineRun.current().orElse(null);
+        List<CompletableFuture<SinkResult>> running = new ArrayList<>();
+        for (String name : names) {
+            RateSink sink = sink(name);
+            Supplier<SinkResult> task = () -> deadline == null
+                    ? pushTo(sink, rates, scrapeDate)
+                    : deadline.call(() -> pushTo(sink, rates, scrapeDate));
+            running.add(CompletableFuture.supplyAsync(run == null ? task : () -> run.call(task), taskExecutor));
+        }
+        return running.stream().map(CompletableFuture::join).toList();
+    }
+
+    private SinkResult pushTo(RateSink sink, List<ExchangeRate> rates, LocalDate scrapeDate) {
+        LocalDate targetDate = sink.targetDate(scrapeDate);
+        List<ErpRate> erpRates = toErpRates(sink, rates, targetDate);
+        long started = System.nanoTime();
+        try {
+            // the writers log and skip rows they cannot write, so nothing written out of a full batch is a failure
+            Predicate<Integer> nothingWritten = count -> count == 0 && !erpRates.isEmpty();
+            int written = PipelineRun.time(Stage.PUSH, sink.name(),
+                    () -> guards.guard(sink.name()).call(() -> sink.write(erpRates), nothingWritten),
+                    count -> count, nothingWritten);
+            logger.info("Finished merging {} valid exchange rates into {} for {}.",
+                    written, sink.displayName(), targetDate);
+            return new SinkResult(sink.name(), sink.displayName(), targetDate, erpRates.size(), written,
+                    null, elapsedMillis(started));
+        } catch (DependencyUnavailableException e) {
+            logger.warn("Skipped push to {} for {}: {}", sink.displayName(), targetDate, e.getMessage());
+            return new SinkResult(sink.name(), sink.displayName(), targetDate, erpRates.size(), 0,
+                    e.getMessage(), elapsedMillis(started));
+        } catch (Exception e) {
+            logger.error("Push to {} for {} failed: {}", sink.displayName(), targetDate, e.getMessage(), e);
+            return new SinkResult(sink.name(), sink.displayName(), targetDate, erpRates.size(), 0,
+                    e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage(), elapsedMillis(started));
+        }
+    }
+
+    /**
+     * Maps scraped rows to the sink's rows, skipping unmapped currencies and rows without a usable rate.
+     * If a currency was scraped more than once that day, the latest row wins.
+     */
+    static List<ErpRate> toErpRates(RateSink sink, List<ExchangeRate> rates, LocalDate targetDate) {
+        Map<String, ErpRate> byCode = new LinkedHashMap<>();
+        for (ExchangeRate rate : rates) {
+            String code = sink.currencyCode(rate.getCurrency());
+            if (code == null) {
+                continue;
+            }
+            OptionalDouble conversionRate = CurrencyRegistry.conversionRate(rate);
+            if (conversionRate.isEmpty()) {
+                logger.warn("Skipping currency {} - no valid sell rate", rate.getCurrency());
+                continue;
+            }
+            byCode.put(code, new ErpRate(targetDate, code, conversionRate.getAsDouble()));
+        }
+        return new ArrayList<>(byCode.values());
+    }
+
+    private static long elapsedMillis(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
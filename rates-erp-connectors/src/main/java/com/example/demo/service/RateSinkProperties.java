@@ -0,0 +1,33 @@
+package com.example.demo.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-sink settings, bound from {@code rates.sinks.<name>.*}. A sink without settings uses the defaults.
+ * Timeouts, concurrency and circuit breaking are set per dependency under {@code resilience.dependencies.<name>.*}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rates")
+public class RateSinkProperties {
+
+    private Map<String, Target> sinks = new LinkedHashMap<>();
+
+    public Target target(String name) {
+        return sinks.getOrDefault(name, new Target());
+    }
+
+    @Data
+    public static class Target {
+        private boolean enabled = true;
+        /**
+         * Days between the scrape date and the date the rates are stored under.
+         */
+        private int dateOffsetDays = 1;
+    }
+}
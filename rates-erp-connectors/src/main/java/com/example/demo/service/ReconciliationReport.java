@@ -0,0 +1,49 @@
+package com.example.demo.service;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of comparing local rates against one downstream system over a date range.
+ * Counts are exact; only the first {@code maxListed} differences are kept in the list.
+ */
+@Data
+public class ReconciliationReport {
+
+    public enum DifferenceType { MISSING, EXTRA, MISMATCH }
+
+    public record Difference(DifferenceType type, LocalDate targetDate, String currencyCode,
+                             Double localRate, Double remoteRate) {
+    }
+
+    private final String system;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int maxListed;
+
+    private int daysCompared;
+    private int matched;
+    private int missing;
+    private int extra;
+    private int mismatched;
+    private int repaired;
+    private final List<Difference> differences = new ArrayList<>();
+
+    void record(Difference difference) {
+        switch (difference.type()) {
+            case MISSING -> missing++;
+            case EXTRA -> extra++;
+            case MISMATCH -> mismatched++;
+        }
+        if (differences.size() < maxListed) {
+            differences.add(difference);
+        }
+    }
+
+    public boolean isTruncated() {
+        return missing + extra + mismatched > differences.size();
+    }
+}
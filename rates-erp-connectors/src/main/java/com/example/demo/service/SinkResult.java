@@ -0,0 +1,14 @@
+package com.example.demo.service;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of pushing one day's rates to one sink. {@code error} is null unless the write threw.
+ */
+public record SinkResult(String sink, String displayName, LocalDate targetDate, int candidates, int written,
+                         String error, long elapsedMillis) {
+
+    public boolean succeeded() {
+        return error == null && written > 0;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the ERP MERGE statements against H2 in Oracle and DB2 compatibility modes.
+ */
+class ErpRateWriterTest {
+
+    private static final LocalDate TARGET = LocalDate.of(2025, 10, 29);
+
+    @Test
+    void oraclePushIsIdempotent() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:oracle-merge;MODE=Oracle;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE SCHEMA IF NOT EXISTS apps");
+        jdbc.execute("CREATE TABLE apps.GL_DAILY_RATES_INTERFACE (FROM_CURRENCY VARCHAR2(15), TO_CURRENCY VARCHAR2(15), " +
+                "FROM_CONVERSION_DATE DATE, TO_CONVERSION_DATE DATE, USER_CONVERSION_TYPE VARCHAR2(30), " +
+                "CONVERSION_RATE NUMBER, USER_ID NUMBER, MODE_FLAG VARCHAR2(1))");
+
+        OracleRateWriter writer = new OracleRateWriter(jdbc);
+        List<ErpRate> rates = List.of(new ErpRate(TARGET, "USD", 48.55), new ErpRate(TARGET, "EUR", 52.30));
+
+        assertEquals(2, writer.upsert(rates));
+        assertEquals(2, writer.upsert(rates));
+        assertEquals(2, writer.upsert(List.of(new ErpRate(TARGET, "USD", 48.60), new ErpRate(TARGET, "EUR", 52.30))));
+
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM apps.GL_DAILY_RATES_INTERFACE", Integer.class));
+        assertEquals(48.60, jdbc.queryForObject(
+                "SELECT CONVERSION_RATE FROM apps.GL_DAILY_RATES_INTERFACE WHERE FROM_CURRENCY = 'USD'", Double.class), 1e-9);
+    }
+
+    @Test
+    void as400PushIsIdempotent() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:as400-merge;MODE=DB2;DB_CLOSE_DELAY=-1", "sa", "")) {
+            try (var statement = connection.createStatement()) {
+                statement.execute("CREATE SCHEMA IF NOT EXISTS ACCOUNT");
+                statement.execute("CREATE TABLE ACCOUNT.EXRATE (EXYY INTEGER, EXMM INTEGER, EXDD INTEGER, " +
+                        "EXCUR CHAR(2), EXAMT DECIMAL(15, 6))");
+            }
+
+            As400RateWriter writer = new As400RateWriter();
+            List<ErpRate> rates = List.of(new ErpRate(TARGET, "US", 48.55), new ErpRate(TARGET, "EU", 52.30));
+
+            assertEquals(2, writer.upsert(connection, rates));
+            assertEquals(2, writer.upsert(connection, rates));
+            assertEquals(1, writer.upsert(connection, List.of(new ErpRate(TARGET, "US", 48.60))));
+
+            try (var statement = connection.createStatement();
+                 var rs = statement.executeQuery("SELECT COUNT(*), SUM(EXAMT) FROM ACCOUNT.EXRATE " +
+                         "WHERE EXYY = 2025 AND EXMM = 10 AND EXDD = 29")) {
+                rs.next();
+                assertEquals(2, rs.getInt(1));
+                assertEquals(48.60 + 52.30, rs.getDouble(2), 1e-6);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.demo.service;
+
+import com.example.demo.resilience.DependencyGuards;
+import com.example.demo.resilience.ResilienceProperties;
+import com.example.demo.service.ReconciliationReport.Difference;
+import com.example.demo.service.ReconciliationReport.DifferenceType;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reconciles local rates against Oracle GL and AS400 tables in H2 Oracle and DB2 compatibility modes.
+ * Oracle and AS400 hold a scrape date under the following day.
+ */
+class RateReconciliationServiceTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2025, 10, 26);
+    private static final LocalDate DAY_2 = DAY_1.plusDays(1);
+    private static final LocalDate DAY_3 = DAY_1.plusDays(2);
+
+    private final JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:mem:reconcile-" + UUID.randomUUID() + ";MODE=Oracle;DB_CLOSE_DELAY=-1", "sa", ""));
+    private final As400RateWriter as400Writer = mock(As400RateWriter.class);
+    private final DependencyGuards guards = new DependencyGuards(new ResilienceProperties(),
+            new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+            new StaticListableBeanFactory().getBeanProvider(Clock.class));
+
+    @BeforeEach
+    void createTables() {
+        jdbc.execute("CREATE TABLE EXCHANGE_RATE (CURRENCY VARCHAR2(64), TRANSFER_SELL VARCHAR2(32), " +
+                "BANKNOTE_SELL VARCHAR2(32), SCRAPED_AT TIMESTAMP)");
+        jdbc.execute("CREATE SCHEMA IF NOT EXISTS apps");
+        jdbc.execute("CREATE TABLE apps.GL_DAILY_RATES (CONVERSION_DATE DATE, FROM_CURRENCY VARCHAR2(15), " +
+                "TO_CURRENCY VARCHAR2(15), CONVERSION_TYPE VARCHAR2(30), CONVERSION_RATE NUMBER)");
+        jdbc.execute("CREATE TABLE apps.GL_DAILY_RATES_INTERFACE (FROM_CURRENCY VARCHAR2(15), TO_CURRENCY VARCHAR2(15), " +
+                "FROM_CONVERSION_DATE DATE, TO_CONVERSION_DATE DATE, USER_CONVERSION_TYPE VARCHAR2(30), " +
+                "CONVERSION_RATE NUMBER, USER_ID NUMBER, MODE_FLAG VARCHAR2(1))");
+        when(as400Writer.upsert(anyList())).thenAnswer(call -> ((List<?>) call.getArgument(0)).size());
+    }
+
+    @Test
+    void mergesInterleavedDaysAgainstOracle() {
+        givenOracleDays();
+
+        ReconciliationReport report = oracleService().reconcileOracle(DAY_1, DAY_3, false);
+
+        assertEquals(3, report.getDaysCompared());
+        assertEquals(1, report.getMatched());
+        assertEquals(1, report.getMissing());
+        assertEquals(2, report.getExtra());
+        assertEquals(1, report.getMismatched());
+        assertEquals(List.of(
+                new Difference(DifferenceType.MISSING, DAY_2, "EUR", 52.30, null),
+                new Difference(DifferenceType.EXTRA, DAY_2, "GBP", null, 60.10),
+                new Difference(DifferenceType.EXTRA, DAY_3, "USD", null, 48.58),
+                new Difference(DifferenceType.MISMATCH, DAY_3.plusDays(1), "USD", 48.70, 48.60)
+        ), report.getDifferences());
+    }
+
+    @Test
+    void repairsMissingAndMismatchedButNotExtraRates() {
+        givenOracleDays();
+
+        ReconciliationReport report = oracleService().reconcileOracle(DAY_1, DAY_3, true);
+
+        assertEquals(2, report.getRepaired());
+        assertEquals(List.of("EUR", "USD"), jdbc.queryForList(
+                "SELECT FROM_CURRENCY FROM apps.GL_DAILY_RATES_INTERFACE ORDER BY FROM_CURRENCY", String.class));
+        assertEquals(48.70, jdbc.queryForObject(
+                "SELECT CONVERSION_RATE FROM apps.GL_DAILY_RATES_INTERFACE WHERE FROM_CURRENCY = 'USD'", Double.class), 1e-9);
+    }
+
+    @Test
+    void repairsInBatches() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int day = 0; day < 60; day++) {
+            for (String currency : List.of("US DOLLAR", "EURO", "POUND STERLING", "SWISS FRANC", "YENS(100)",
+                    "SAUDI RIALS", "U.A.E DIRHAM", "Kuwait DINAR", "JORDAN DINAR", "QATAR RIAL")) {
+                rows.add(new Object[]{currency, "10.5", "10.5", Timestamp.valueOf(DAY_1.plusDays(day).atTime(16, 0))});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO EXCHANGE_RATE VALUES (?, ?, ?, ?)", rows);
+        OracleRateWriter oracleWriter = mock(OracleRateWriter.class);
+        when(oracleWriter.upsert(anyList())).thenAnswer(call -> ((List<?>) call.getArgument(0)).size());
+
+        ReconciliationReport report = new RateReconciliationService(jdbc, oracleWriter, as400Writer, guards)
+                .reconcileOracle(DAY_1, DAY_1.plusDays(59), true);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ErpRate>> batches = ArgumentCaptor.forClass(List.class);
+        verify(oracleWriter, times(2)).upsert(batches.capture());
+        assertEquals(List.of(500, 100), batches.getAllValues().stream().map(List::size).toList());
+        assertEquals(600, report.getMissing());
+        assertEquals(600, report.getRepaired());
+    }
+
+    @Test
+    void countsAFailedReadAgainstTheOracleGuard() {
+        jdbc.execute("DROP TABLE apps.GL_DAILY_RATES");
+
+        assertThrows(DataAccessException.class, () -> oracleService().reconcileOracle(DAY_1, DAY_3, false));
+        assertEquals(1, guards.guard("oracle").getFailures());
+    }
+
+    @Test
+    void readsTheAs400RangeAcrossAYearBoundary() throws Exception {
+        LocalDate newYearsEve = LocalDate.of(2025, 12, 31);
+        local("US DOLLAR", "48.55", newYearsEve.minusDays(1).atTime(16, 0));
+        local("EURO", "52.30", newYearsEve.minusDays(1).atTime(16, 0));
+        local("US DOLLAR", "48.70", newYearsEve.atTime(16, 0));
+
+        try (Connection connection = DriverManager.getConnection(
+                "jdbc:h2:mem:as400-reconcile-" + UUID.randomUUID() + ";MODE=DB2;DB_CLOSE_DELAY=-1", "sa", "")) {
+            try (var statement = connection.createStatement()) {
+                statement.execute("CREATE SCHEMA IF NOT EXISTS ACCOUNT");
+                statement.execute("CREATE TABLE ACCOUNT.EXRATE (EXYY INTEGER, EXMM INTEGER, EXDD INTEGER, " +
+                        "EXCUR CHAR(2), EXAMT DECIMAL(15, 6))");
+                statement.execute("INSERT INTO ACCOUNT.EXRATE VALUES " +
+                        "(2025, 12, 30, 'US', 48.40), " +  // before the range
+                        "(2025, 12, 31, 'US', 48.55), " +
+                        "(2026, 1, 1, 'US', 48.60), " +
+                        "(2026, 1, 1, 'JY', 32.10), " +
+                        "(2026, 1, 1, 'XX', 1.00), " +     // not a mapped code
+                        "(2026, 1, 2, 'US', 48.80)");      // after the range
+            }
+
+            ReconciliationReport report = oracleService()
+                    .reconcileAs400(connection, newYearsEve.minusDays(1), newYearsEve, true);
+
+            assertEquals(2, report.getDaysCompared());
+            assertEquals(1, report.getMatched());
+            assertEquals(1, report.getMissing());
+            assertEquals(1, report.getExtra());
+            assertEquals(1, report.getMismatched());
+            assertEquals(2, report.getRepaired());
+            verify(as400Writer).upsert(List.of(
+                    new ErpRate(newYearsEve, "EU", 52.30),
+                    new ErpRate(LocalDate.of(2026, 1, 1), "US", 48.70)));
+        }
+    }
+
+    @Test
+    void reportsWithoutWritingWhenNotRepairing() throws Exception {
+        local("US DOLLAR", "48.55", DAY_1.atTime(16, 0));
+
+        try (Connection connection = DriverManager.getConnection(
+                "jdbc:h2:mem:as400-reconcile-" + UUID.randomUUID() + ";MODE=DB2;DB_CLOSE_DELAY=-1", "sa", "")) {
+            try (var statement = connection.createStatement()) {
+                statement.execute("CREATE SCHEMA IF NOT EXISTS ACCOUNT");
+                statement.execute("CREATE TABLE ACCOUNT.EXRATE (EXYY INTEGER, EXMM INTEGER, EXDD INTEGER, " +
+                        "EXCUR CHAR(2), EXAMT DECIMAL(15, 6))");
+            }
+
+            ReconciliationReport report = oracleService().reconcileAs400(connection, DAY_1, DAY_1, false);
+
+            assertEquals(1, report.getMissing());
+            assertEquals(0, report.getRepaired());
+            verify(as400Writer, never()).upsert(anyList());
+        }
+    }
+
+    /**
+     * Local scrape days 1 and 3, Oracle target days 2, 3 and 4, so the join sees a day only
+     * Oracle has between two days both sides have.
+     */
+    private void givenOracleDays() {
+        local("US DOLLAR", "48.50", DAY_1.atTime(10, 0));
+        local("US DOLLAR", "48.55", DAY_1.atTime(16, 0));  // the later scrape of the day wins
+        local("EURO", "52.30", DAY_1.atTime(16, 0));
+        local("BITCOIN", "1.00", DAY_1.atTime(16, 0));     // not mapped, ignored
+        local("US DOLLAR", "48.70", DAY_3.atTime(16, 0));
+
+        oracle(DAY_2, "USD", "EGP", 48.55003);              // within tolerance
+        oracle(DAY_2, "GBP", "EGP", 60.10);
+        oracle(DAY_2, "USD", "EUR", 0.92);                  // not an EGP rate
+        oracle(DAY_3, "USD", "EGP", 48.58);
+        oracle(DAY_3.plusDays(1), "USD", "EGP", 48.60);
+    }
+
+    private RateReconciliationService oracleService() {
+        return new RateReconciliationService(jdbc, new OracleRateWriter(jdbc), as400Writer, guards);
+    }
+
+    private void local(String currency, String transferSell, LocalDateTime scrapedAt) {
+        jdbc.update("INSERT INTO EXCHANGE_RATE VALUES (?, ?, ?, ?)",
+                currency, transferSell, transferSell, Timestamp.valueOf(scrapedAt));
+    }
+
+    private void oracle(LocalDate date, String from, String to, double rate) {
+        jdbc.update("INSERT INTO apps.GL_DAILY_RATES VALUES (?, ?, ?, 'Corporate', ?)",
+                java.sql.Date.valueOf(date), from, to, rate);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.resilience.DependencyGuards;
+import com.example.demo.resilience.ResilienceProperties;
+import com.example.demo.validation.RateValidationGate;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateSinkFanoutTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 28);
+
+    private static final List<ExchangeRate> RATES = List.of(
+            rate("US DOLLAR", "48.50"),
+            rate("EURO", "52.30"),
+            rate("US DOLLAR", "48.55"),
+            rate("YENS(100)", "0"),
+            rate("KLINGON DARSEK", "1.00"));
+
+    private static ExchangeRate rate(String currency, String transferSell) {
+        return ExchangeRate.builder().currency(currency).transferSell(transferSell).banknoteSell("0")
+                .scrapedAt(DAY.atTime(16, 5)).build();
+    }
+
+    private static RateSinkFanout fanout(RateSinkProperties properties, RateSink... sinks) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        DependencyGuards guards = new DependencyGuards(new ResilienceProperties(),
+                beans.getBeanProvider(MeterRegistry.class), beans.getBeanProvider(Clock.class));
+        RateValidationGate gate = mock(RateValidationGate.class);
+        when(gate.releasable(any())).thenAnswer(call -> call.getArgument(0));
+        return new RateSinkFanout(List.of(sinks), properties, guards, gate, new SimpleAsyncTaskExecutor("sink-test-"));
+    }
+
+    @Test
+    void pushesToAllSinksInParallelAndIsolatesFailures() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        FakeSink oracle = new FakeSink("oracle", 1, rates -> {
+            bothStarted.countDown();
+            await(bothStarted);
+            return rates.size();
+        });
+        FakeSink as400 = new FakeSink("as400", 1, rates -> {
+            bothStarted.countDown();
+            await(bothStarted);
+            throw new IllegalStateException("AS400 is down");
+        });
+
+        List<SinkResult> results = fanout(new RateSinkProperties(), oracle, as400).push(RATES, DAY, List.of("oracle", "as400"));
+
+        assertTrue(results.get(0).succeeded());
+        assertEquals(DAY.plusDays(1), results.get(0).targetDate());
+        assertEquals(2, results.get(0).written(), "unmapped and zero rates are dropped, the latest USD wins");
+        assertEquals(List.of(new ErpRate(DAY.plusDays(1), "USD", 48.55), new ErpRate(DAY.plusDays(1), "EUR", 52.30)),
+                oracle.lastWrite);
+        assertFalse(results.get(1).succeeded());
+        assertEquals("AS400 is down", results.get(1).error());
+    }
+
+    @Test
+    void appliesConfiguredDateOffsetAndDisabledSinks() {
+        RateSinkProperties properties = new RateSinkProperties();
+        RateSinkProperties.Target sameDay = new RateSinkProperties.Target();
+        sameDay.setDateOffsetDays(0);
+        RateSinkProperties.Target off = new RateSinkProperties.Target();
+        off.setEnabled(false);
+        properties.setSinks(Map.of("ledger", sameDay, "as400", off));
+
+        RateSinkFanout fanout = fanout(properties,
+                new FakeSink("ledger", sameDay.getDateOffsetDays(), List::size),
+                new FakeSink("as400", 1, List::size));
+
+        assertEquals(List.of("ledger"), fanout.sinkNames());
+        List<SinkResult> results = fanout.pushToAll(RATES, DAY);
+        assertEquals(1, results.size());
+        assertEquals(DAY, results.get(0).targetDate());
+    }
+
+    @Test
+    void limitsConcurrentWritesPerSink() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        FakeSink oracle = new FakeSink("oracle", 1, rates -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleep();
+            inFlight.decrementAndGet();
+            return rates.size();
+        });
+        RateSinkFanout fanout = fanout(new RateSinkProperties(), oracle);
+
+        Thread[] callers = new Thread[4];
+        for (int i = 0; i < callers.length; i++) {
+            callers[i] = new Thread(() -> fanout.pushToAll(RATES, DAY));
+            callers[i].start();
+        }
+        for (Thread caller : callers) {
+            caller.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        assertEquals(1, maxInFlight.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "sinks did not run in parallel");
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class FakeSink implements RateSink {
+        private final String name;
+        private final int dateOffsetDays;
+        private final Function<List<ErpRate>, Integer> writer;
+        volatile List<ErpRate> lastWrite;
+
+        FakeSink(String name, int dateOffsetDays, Function<List<ErpRate>, Integer> writer) {
+            this.name = name;
+            this.dateOffsetDays = dateOffsetDays;
+            this.writer = writer;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public String displayName() {
+            return name.toUpperCase();
+        }
+
+        @Override
+        public String currencyCode(String currencyName) {
+            return CurrencyRegistry.oracleCode(currencyName);
+        }
+
+        @Override
+        public LocalDate targetDate(LocalDate scrapeDate) {
+            return scrapeDate.plusDays(dateOffsetDays);
+        }
+
+        @Override
+        public int write(List<ErpRate> rates) {
+            lastWrite = rates;
+            return writer.apply(rates);
+        }
+
+        @Override
+        public boolean hasRatesFor(LocalDate targetDate) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables Spring's task scheduler, used by the adaptive scrape scheduler to plan its own wake-ups.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
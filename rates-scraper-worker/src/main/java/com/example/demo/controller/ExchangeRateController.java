@@ -0,0 +1,391 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.entity.QuarantinedRate;
+import com.example.demo.journal.PipelineRun;
+import com.example.demo.journal.RunJournal;
+import com.example.demo.resilience.DependencyGuards;
+import com.example.demo.resilience.DependencyUnavailableException;
+import com.example.demo.service.AdaptiveScrapeScheduler;
+import com.example.demo.service.ExchangeRatePushService;
+import com.example.demo.service.ExchangeRateQueryService;
+import com.example.demo.service.ExchangeRateService;
+import com.example.demo.service.PageReplayService;
+import com.example.demo.service.RateHistoryImporter;
+import com.example.demo.service.RateReconciliationService;
+import com.example.demo.service.ReconciliationReport;
+import com.example.demo.service.ScrapeDayState;
+import com.example.demo.service.SinkResult;
+import com.example.demo.validation.RateValidationGate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Operational endpoints of the scraper worker: scraping, pushes, backfills, status and
+ * reconciliation. Read-only rate queries are served by the rates-api module.
+ */
+@RestController
+@RequestMapping("/api/rates")
+@RequiredArgsConstructor
+public class ExchangeRateController {
+
+    private final ExchangeRateService service;
+    private final ExchangeRateQueryService queryService;
+    private final ExchangeRatePushService pushService;
+    private final AdaptiveScrapeScheduler scheduler;
+    private final RateReconciliationService reconciliationService;
+    private final PageReplayService replayService;
+    private final RateHistoryImporter importer;
+    private final DependencyGuards guards;
+    private final RateValidationGate gate;
+    private final RunJournal journal;
+
+    /**
+     * Trigger manual scraping of exchange rates from NBE website
+     */
+    @GetMapping("/scrape")
+    public ResponseEntity<Map<String, Object>> scrapeRates() {
+        List<ExchangeRate> rates = journal.record("manual-scrape", LocalDate.now(), service::scrapeAndSaveRates);
+        return ResponseEntity.ok(Map.of(
+                "message", "Scraping completed",
+                "recordsScraped", rates.size(),
+                "rates", rates
+        ));
+    }
+
+    /**
+     * Re-parse archived NBE pages and regenerate the scraped rows of the days they cover.
+     * Only reports what would be regenerated unless {@code confirm=true} is given.
+     * @param confirm Actually delete and rewrite the days
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> replayArchivedPages(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean confirm) {
+        return ResponseEntity.ok(replayService.replay(from, to, !confirm));
+    }
+
+    /**
+     * Bulk import of historical rates, streamed from the request body
+     * @param format csv or json; send Content-Encoding: gzip for compressed files
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importHistory(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, 1 << 16) : body;
+        if ("json".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok(importer.importJson(in));
+        }
+        if (!"csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unsupported format: " + format));
+        }
+        return ResponseEntity.ok(importer.importCsv(in));
+    }
+
+    /**
+     * Push exchange rates to one sink (oracle, as400, ...) for a specific date
+     * @param days Number of days back from today (0 = today, 1 = yesterday, etc.)
+     */
+    @GetMapping("/push/{sink}")
+    public ResponseEntity<Map<String, Object>> pushToSink(
+            @PathVariable String sink,
+            @RequestParam(defaultValue = "0") int days) {
+        if (!pushService.sinkNames().contains(sink)) {
+            return unknownSink(sink);
+        }
+        LocalDate targetDate = LocalDate.now().minusDays(days);
+        List<ExchangeRate> rates = queryService.getAllRatesByDate(targetDate);
+
+        if (rates.isEmpty()) {
+            return ResponseEntity.ok(Map.of(
+                    "message", "No data found for date: " + targetDate,
+                    "recordsPushed", 0
+            ));
+        }
+
+        SinkResult result = journal.record("manual-push", targetDate,
+                () -> pushService.pushValidRates(sink, rates, targetDate));
+        return ResponseEntity.ok(Map.of(
+                "message", result.displayName() + " push completed",
+                "targetDate", result.targetDate(),
+                "recordsPushed", result.written()
+        ));
+    }
+
+    /**
+     * ✅ NEW: Push back days to one sink (re-merges every day, so missing dates are filled)
+     * Example: /api/rates/push/oracle/backfill?daysBack=7
+     * This will upsert each of the last 7 days; dates already in the sink are re-merged, days without local data are skipped
+     *
+     * @param daysBack Number of days to go back (e.g., 7 = last week, 30 = last month)
+     */
+    @GetMapping("/push/{sink}/backfill")
+    public ResponseEntity<Map<String, Object>> pushBackDaysToSink(
+            @PathVariable String sink,
+            @RequestParam(defaultValue = "7") int daysBack) {
+
+        if (!pushService.sinkNames().contains(sink)) {
+            return unknownSink(sink);
+        }
+        if (daysBack < 0 || daysBack > 365) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "daysBack must be between 0 and 365"
+            ));
+        }
+
+        Map<String, Object> result = journal.record("backfill", LocalDate.now(),
+                () -> pushService.pushBackDays(List.of(sink), daysBack));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> sinkResult = (Map<String, Object>) result.get(sink);
+        return ResponseEntity.ok(sinkResult);
+    }
+
+    /**
+     * ✅ NEW: Push back days to ALL enabled sinks in parallel
+     * Example: /api/rates/push/both/backfill?daysBack=7 (or /push/all/backfill)
+     * This will upsert each of the last 7 days into every sink; dates already there are re-merged, days without local data are skipped
+     *
+     * @param daysBack Number of days to go back (e.g., 7 = last week, 30 = last month)
+     */
+    @GetMapping({"/push/both/backfill", "/push/all/backfill"})
+    public ResponseEntity<Map<String, Object>> pushBackDaysToAll(
+            @RequestParam(defaultValue = "7") int daysBack) {
+
+        if (daysBack < 0 || daysBack > 365) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "daysBack must be between 0 and 365"
+            ));
+        }
+
+        Map<String, Object> result = journal.record("backfill", LocalDate.now(),
+                () -> pushService.pushBackDays(pushService.sinkNames(), daysBack));
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Compare local rates with Oracle GL for a range of scrape dates. Read-only; see the POST for repairs
+     * Example: /api/rates/reconcile/oracle?from=2025-01-01&to=2025-10-28
+     */
+    @GetMapping("/reconcile/oracle")
+    public ResponseEntity<?> reconcileOracle(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reconcile(from, to, () -> reconciliationService.reconcileOracle(from, to, false));
+    }
+
+    /**
+     * Compare with Oracle GL and re-send missing and mismatched rates. A POST, so no crawler or retried GET writes to the GL
+     * Example: POST /api/rates/reconcile/oracle/repair?from=2025-01-01&to=2025-10-28
+     */
+    @PostMapping("/reconcile/oracle/repair")
+    public ResponseEntity<?> repairOracle(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reconcile(from, to, () -> reconciliationService.reconcileOracle(from, to, true));
+    }
+
+    /**
+     * Compare local rates with AS400 for a range of scrape dates. Read-only; see the POST for repairs
+     * Example: /api/rates/reconcile/as400?from=2025-01-01&to=2025-10-28
+     */
+    @GetMapping("/reconcile/as400")
+    public ResponseEntity<?> reconcileAs400(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reconcile(from, to, () -> reconciliationService.reconcileAs400(from, to, false));
+    }
+
+    /**
+     * Compare with AS400, insert missing rates and update mismatched ones
+     * Example: POST /api/rates/reconcile/as400/repair?from=2025-01-01&to=2025-10-28
+     */
+    @PostMapping("/reconcile/as400/repair")
+    public ResponseEntity<?> repairAs400(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reconcile(from, to, () -> reconciliationService.reconcileAs400(from, to, true));
+    }
+
+    private static ResponseEntity<?> reconcile(LocalDate from, LocalDate to, Supplier<ReconciliationReport> reconciliation) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "from must not be after to"
+            ));
+        }
+        try {
+            return ResponseEntity.ok(reconciliation.get());
+        } catch (DependencyUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Check if a sink (oracle, as400, ...) has data for today's push
+     */
+    @GetMapping("/status/{sink}")
+    public ResponseEntity<Map<String, Object>> checkSinkStatus(@PathVariable String sink) {
+        if (!pushService.sinkNames().contains(sink)) {
+            return unknownSink(sink);
+        }
+        LocalDate today = LocalDate.now();
+        boolean hasData;
+        try {
+            hasData = pushService.isAlreadyPushed(sink, today);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                    "system", pushService.sink(sink).displayName(),
+                    "date", today,
+                    "error", "Could not check " + sink + ": " + e.getMessage()
+            ));
+        }
+
+        return ResponseEntity.ok(Map.of(
+                "system", pushService.sink(sink).displayName(),
+                "date", today,
+                "targetDate", pushService.sink(sink).targetDate(today),
+                "hasData", hasData,
+                "status", hasData ? "Data already pushed" : "No data pushed yet"
+        ));
+    }
+
+    /**
+     * Where today's scheduled pipeline currently stands
+     */
+    @GetMapping("/status/pipeline")
+    public ResponseEntity<Map<String, Object>> checkPipelineStatus() {
+        ScrapeDayState state = scheduler.getState();
+        if (state == null) {
+            return ResponseEntity.ok(Map.of("status", "Scheduler not started yet"));
+        }
+
+        return ResponseEntity.ok(Map.of(
+                "date", state.getDate(),
+                "phase", state.getPhase(),
+                "consecutiveFailures", state.getConsecutiveFailures(),
+                "pushedTo", state.getPushedSinks(),
+                "failureAlertChecked", state.isFailureAlertChecked(),
+                "leader", scheduler.isLeader(),
+                "leaseOwner", scheduler.getLeaseOwner()
+        ));
+    }
+
+    /**
+     * Circuit state, calls in flight and call counts of each guarded dependency (oracle, as400, nbe)
+     */
+    @GetMapping("/status/dependencies")
+    public ResponseEntity<Map<String, Object>> checkDependencies() {
+        return ResponseEntity.ok(guards.snapshot());
+    }
+
+    /**
+     * Recent pipeline runs, newest first, with the timing and outcome of each stage
+     * @param date Only runs for this scrape date
+     */
+    @GetMapping("/status/runs")
+    public ResponseEntity<Map<String, Object>> listRuns(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        List<PipelineRun> runs = journal.recent(Math.max(1, limit), date);
+        return ResponseEntity.ok(Map.of(
+                "count", runs.size(),
+                "runs", runs
+        ));
+    }
+
+    /**
+     * One pipeline run by id
+     */
+    @GetMapping("/status/runs/{id}")
+    public ResponseEntity<Map<String, Object>> getRun(@PathVariable String id) {
+        Optional<PipelineRun> run = journal.find(id);
+        if (run.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "No run " + id + " in the journal"));
+        }
+        return ResponseEntity.ok(Map.of("run", run.get()));
+    }
+
+    /**
+     * Scraped rates held back from the pushes by the validation gate, newest first
+     */
+    @GetMapping("/quarantine")
+    public ResponseEntity<Map<String, Object>> listQuarantine() {
+        List<QuarantinedRate> pending = gate.pending();
+        return ResponseEntity.ok(Map.of(
+                "count", pending.size(),
+                "pending", pending
+        ));
+    }
+
+    /**
+     * Approve a quarantined rate and re-push its day to all sinks
+     */
+    @PostMapping("/quarantine/{id}/approve")
+    public ResponseEntity<Map<String, Object>> approveQuarantined(@PathVariable long id) {
+        try {
+            QuarantinedRate entry = gate.approve(id);
+            LocalDate scrapeDate = entry.getScrapedAt().toLocalDate();
+            List<SinkResult> results = journal.record("quarantine-approve", scrapeDate,
+                    () -> pushService.pushDay(scrapeDate));
+            return ResponseEntity.ok(Map.of(
+                    "message", "Approved " + entry.getCurrency() + " scraped at " + entry.getScrapedAt(),
+                    "quarantined", entry,
+                    "pushes", results
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Reject a quarantined rate so it is never pushed
+     */
+    @PostMapping("/quarantine/{id}/reject")
+    public ResponseEntity<Map<String, Object>> rejectQuarantined(@PathVariable long id) {
+        try {
+            QuarantinedRate entry = gate.reject(id);
+            return ResponseEntity.ok(Map.of(
+                    "message", "Rejected " + entry.getCurrency() + " scraped at " + entry.getScrapedAt(),
+                    "quarantined", entry
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Send test email
+     */
+    @GetMapping("/test-email")
+    public ResponseEntity<String> sendTestEmail() {
+        service.sendTestEmail();
+        return ResponseEntity.ok("Test email sent. Check logs for confirmation.");
+    }
+
+    private ResponseEntity<Map<String, Object>> unknownSink(String sink) {
+        return ResponseEntity.badRequest().body(Map.of(
+                "error", "Unknown sink '" + sink + "', expected one of " + pushService.sinkNames()
+        ));
+    }
+}
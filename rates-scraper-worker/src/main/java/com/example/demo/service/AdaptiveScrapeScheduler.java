@@ -0,0 +1,323 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.journal.PipelineRun;
+import com.example.demo.journal.RunJournal;
+import com.example.demo.journal.Stage;
+import com.example.demo.resilience.Deadline;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Drives the daily scrape and push pipeline as a state machine.
+ * <p>
+ * Each wake-up advances the day's {@link ScrapeDayState} as far as it can (scrape, then push
+ * to every enabled {@link RateSink} in parallel) and asks the {@link ScrapeSchedulePlanner} when to wake up next. The
+ * local database, and the sinks if the day was already scraped, are only probed once per day to recover
+ * the state; after that the in-memory flags are authoritative, so finished targets cost nothing on later wake-ups.
+ * <p>
+ * When several instances run, only the holder of the {@value #LEASE} {@link LeaseLock} advances
+ * the pipeline. The leader renews the lease from a heartbeat, so a long scrape does not let it
+ * expire. The other instances only retry the lease, at least once per TTL, and take over within
+ * one lease period if the leader dies.
+ * <p>
+ * Each wake-up runs under a {@link Deadline} of {@code scheduler.tick-deadline}, which the scrape,
+ * the pushes and their JDBC statements inherit, so a hung ERP cannot keep a tick running into the next one.
+ * Wake-ups that do work are recorded as {@link PipelineRun}s in the {@link RunJournal}.
+ */
+@Component
+public class AdaptiveScrapeScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveScrapeScheduler.class);
+    static final String LEASE = "scrape-pipeline";
+
+    private final ExchangeRateService service;
+    private final ExchangeRateQueryService queryService;
+    private final RateSinkFanout sinks;
+    private final EmailNotificationDispatcher notificationDispatcher;
+    private final TaskScheduler taskScheduler;
+    private final LeaseLock leaseLock;
+    private final ScrapeSchedulePlanner planner;
+    private final RunJournal journal;
+    private final Duration tickDeadline;
+
+    // A lock rather than synchronized, so a tick blocked in Selenium or JDBC does not pin a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile ScrapeDayState state;
+    private volatile ScheduledFuture<?> nextRun;
+    private volatile ScheduledFuture<?> heartbeat;
+    private volatile boolean stopped;
+
+    public AdaptiveScrapeScheduler(
+            ExchangeRateService service,
+            ExchangeRateQueryService queryService,
+            RateSinkFanout sinks,
+            EmailNotificationDispatcher notificationDispatcher,
+            TaskScheduler taskScheduler,
+            LeaseLock leaseLock,
+            RunJournal journal,
+            @Value("${scheduler.zone:Africa/Cairo}") String zone,
+            @Value("${scheduler.window-start:16:00}") String windowStart,
+            @Value("${scheduler.window-end:22:00}") String windowEnd,
+            @Value("${scheduler.poll-interval:PT10M}") Duration pollInterval,
+            @Value("${scheduler.max-backoff:PT1H}") Duration maxBackoff,
+            @Value("${scheduler.failure-alert-time:16:40}") String failureAlertTime,
+            @Value("${scheduler.weekend-days:FRIDAY,SATURDAY}") Set<DayOfWeek> weekendDays,
+            @Value("${scheduler.holidays:}") List<String> holidays,
+            @Value("${scheduler.tick-deadline:PT8M}") Duration tickDeadline) {
+        this.service = service;
+        this.queryService = queryService;
+        this.sinks = sinks;
+        this.notificationDispatcher = notificationDispatcher;
+        this.taskScheduler = taskScheduler;
+        this.leaseLock = leaseLock;
+        this.journal = journal;
+        this.tickDeadline = tickDeadline;
+        this.planner = new ScrapeSchedulePlanner(
+                ZoneId.of(zone),
+                LocalTime.parse(windowStart),
+                LocalTime.parse(windowEnd),
+                pollInterval,
+                maxBackoff,
+                LocalTime.parse(failureAlertTime),
+                weekendDays,
+                holidays.stream().map(String::trim).filter(h -> !h.isEmpty()).map(LocalDate::parse)
+                        .collect(Collectors.toSet()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        tick();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        ScheduledFuture<?> scheduled = nextRun;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        if (stopHeartbeat()) {
+            leaseLock.release(LEASE);
+        }
+    }
+
+    /**
+     * Current state of the day, for status reporting.
+     */
+    public ScrapeDayState getState() {
+        return state;
+    }
+
+    /**
+     * Whether this instance currently holds the pipeline lease.
+     */
+    public boolean isLeader() {
+        return heartbeat != null;
+    }
+
+    public String getLeaseOwner() {
+        return leaseLock.getOwner();
+    }
+
+    void tick() {
+        lock.lock();
+        try {
+            runTick();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runTick() {
+        if (stopped) {
+            return;
+        }
+        ZonedDateTime now = ZonedDateTime.now(planner.getZone());
+        LocalDate today = now.toLocalDate();
+        if (state == null || !state.getDate().equals(today)) {
+            state = new ScrapeDayState(today, sinks.sinkNames());
+        }
+
+        if (!holdLease()) {
+            // Another instance runs the pipeline; come back within one lease period to take over if it dies
+            ZonedDateTime next = planner.nextWakeUp(state, now);
+            ZonedDateTime retry = now.plus(leaseLock.getTtl());
+            nextRun = taskScheduler.schedule(this::tick, (next.isBefore(retry) ? next : retry).toInstant());
+            return;
+        }
+
+        Deadline deadline = Deadline.after(tickDeadline);
+        PipelineRun run = null;
+        String outcome = "ok";
+        try {
+            if (planner.isBusinessDay(today) && planner.isInWindow(now) && state.getPhase() != ScrapePhase.DONE) {
+                run = journal.begin("scheduler", today);
+                if (run.call(() -> deadline.call(() -> advance(state)))) {
+                    state.setConsecutiveFailures(0);
+                } else {
+                    state.setConsecutiveFailures(state.getConsecutiveFailures() + 1);
+                    outcome = "incomplete";
+                }
+            }
+            if (planner.isFailureAlertDue(state, now)) {
+                if (run == null) {
+                    run = journal.begin("failure-alert", today);
+                }
+                run.run(() -> deadline.run(() -> checkSinksAndAlert(state)));
+            }
+        } catch (Exception e) {
+            state.setConsecutiveFailures(state.getConsecutiveFailures() + 1);
+            outcome = "failed: " + e.getMessage();
+            logger.error("Scheduled pipeline step failed: {}", e.getMessage(), e);
+        } finally {
+            if (run != null) {
+                journal.end(run, outcome + " (" + state.getPhase() + ")");
+            }
+            ZonedDateTime next = planner.nextWakeUp(state, ZonedDateTime.now(planner.getZone()));
+            logger.info("Pipeline phase for {} is {} ({} consecutive failures), next wake-up at {}",
+                    state.getDate(), state.getPhase(), state.getConsecutiveFailures(), next);
+            nextRun = taskScheduler.schedule(this::tick, next.toInstant());
+        }
+    }
+
+    /**
+     * Takes or renews the lease and keeps the heartbeat in step with it.
+     */
+    private boolean holdLease() {
+        boolean held;
+        try {
+            held = leaseLock.tryAcquire(LEASE);
+        } catch (Exception e) {
+            logger.warn("Could not check the pipeline lease: {}", e.getMessage());
+            held = false;
+        }
+        if (held && heartbeat == null) {
+            logger.info("{} is now running the pipeline", leaseLock.getOwner());
+            heartbeat = taskScheduler.scheduleAtFixedRate(this::renewLease, leaseLock.getTtl().dividedBy(3));
+        } else if (!held && stopHeartbeat()) {
+            logger.warn("{} lost the pipeline lease", leaseLock.getOwner());
+        }
+        return held;
+    }
+
+    private void renewLease() {
+        try {
+            if (!leaseLock.tryAcquire(LEASE) && stopHeartbeat()) {
+                logger.warn("{} lost the pipeline lease", leaseLock.getOwner());
+            }
+        } catch (Exception e) {
+            logger.warn("Pipeline lease renewal failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean stopHeartbeat() {
+        ScheduledFuture<?> running = heartbeat;
+        heartbeat = null;
+        if (running == null) {
+            return false;
+        }
+        running.cancel(false);
+        return true;
+    }
+
+    /**
+     * Moves the day forward as far as possible. Returns false if any step failed.
+     */
+    private boolean advance(ScrapeDayState day) {
+        LocalDate today = day.getDate();
+
+        // Pushes are idempotent upserts, so after a restart they are simply repeated. The sinks are
+        // probed once only to tell which of them already had the day, whose completion email went out then
+        if (!day.isVerified()) {
+            day.setScraped(PipelineRun.time(Stage.EXISTENCE_PROBE, "local",
+                    () -> queryService.hasRatesForDate(today), found -> 0));
+            if (day.isScraped()) {
+                probeSinks(day);
+            }
+            day.setVerified(true);
+        }
+
+        if (!day.isScraped()) {
+            logger.info("No rates found for {}. Starting scheduled scrape", today);
+            if (service.scrapeAndSaveRates().isEmpty()) {
+                return false;
+            }
+            day.setScraped(true);
+        }
+
+        boolean ok = true;
+        List<String> pending = day.getPendingSinks();
+        if (!pending.isEmpty()) {
+            List<ExchangeRate> rates = queryService.getAllRatesByDate(today);
+            for (SinkResult result : sinks.push(rates, today, pending)) {
+                if (result.succeeded()) {
+                    day.markPushed(result.sink());
+                    if (day.wasAlreadyHeld(result.sink())) {
+                        logger.info("{} already had the rates for {}. No completion email", result.displayName(), today);
+                    } else {
+                        notificationDispatcher.notifyCompletion(result.displayName(), rates);
+                    }
+                } else {
+                    ok = false;
+                }
+            }
+        }
+
+        return ok;
+    }
+
+    /**
+     * Notes which sinks already hold the day. A sink that cannot be checked counts as not holding it,
+     * so at worst its completion email is sent twice rather than not at all.
+     */
+    private void probeSinks(ScrapeDayState day) {
+        for (String sink : day.getPendingSinks()) {
+            try {
+                if (sinks.hasRatesFor(sink, day.getDate())) {
+                    day.markAlreadyHeld(sink);
+                }
+            } catch (Exception e) {
+                logger.warn("Could not check {} for {}: {}", sink, day.getDate(), e.getMessage());
+            }
+        }
+    }
+
+    private void checkSinksAndAlert(ScrapeDayState day) {
+        for (String sink : day.getSinks()) {
+            boolean pushed;
+            try {
+                pushed = sinks.hasRatesFor(sink, day.getDate());
+            } catch (Exception e) {
+                logger.warn("Could not check {} for {}: {}", sink, day.getDate(), e.getMessage());
+                pushed = false;
+            }
+            if (!pushed) {
+                logger.info("Data not pushed to {} yet. Sending failure alert", sink);
+                notificationDispatcher.notifyFailure(sinks.sink(sink).displayName());
+            } else {
+                logger.info("Data already pushed to {}. No action needed.", sink);
+            }
+        }
+        day.setFailureAlertChecked(true);
+    }
+}
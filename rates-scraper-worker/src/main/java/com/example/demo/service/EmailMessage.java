@@ -0,0 +1,9 @@
+package com.example.demo.service;
+
+import java.util.List;
+
+/**
+ * A fully rendered email, ready to be handed to an {@link EmailTransport}.
+ */
+public record EmailMessage(List<String> to, List<String> cc, String subject, String html) {
+}
@@ -0,0 +1,258 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.journal.PipelineRun;
+import com.example.demo.journal.Stage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sends notification emails off the scheduler thread.
+ * <p>
+ * Notifications are put on a bounded queue and delivered by a single background worker on a
+ * thread of its own, so the endless queue loop does not hold a thread of the application task
+ * executor that the sink pushes run on.
+ * Completion notices that arrive within the digest window and refer to the same scraped
+ * snapshot (typically Oracle and AS400 for the same day) are coalesced into one email.
+ * Failed deliveries are retried with exponential backoff. Each delivery is timed as an
+ * {@link Stage#EMAIL} stage of the run that queued it.
+ */
+@Service
+public class EmailNotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailNotificationDispatcher.class);
+
+    private enum Kind { COMPLETION, FAILURE }
+
+    private record Notification(Kind kind, String systemName, List<ExchangeRate> rates, LocalDateTime time,
+                                PipelineRun run) {
+    }
+
+    private final EmailTransport transport;
+    private final EmailTemplateRenderer renderer;
+    private final List<String> recipients;
+    private final List<String> cc;
+    private final BlockingQueue<Notification> queue;
+    private final Duration digestWindow;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+
+    private final SimpleAsyncTaskExecutor workerThread;
+    private final CountDownLatch workerFinished = new CountDownLatch(1);
+
+    private volatile boolean running;
+    private Future<?> worker;
+
+    public EmailNotificationDispatcher(
+            EmailTransport transport,
+            EmailTemplateRenderer renderer,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${notification.recipients:mmousa@ezzsteel.com.eg}") List<String> recipients,
+            @Value("${notification.cc:mmousa@ezzsteel.com.eg}") List<String> cc,
+            @Value("${notification.queue-capacity:100}") int queueCapacity,
+            @Value("${notification.digest-window:PT1M}") Duration digestWindow,
+            @Value("${notification.max-attempts:5}") int maxAttempts,
+            @Value("${notification.initial-backoff:PT5S}") Duration initialBackoff) {
+        this.transport = transport;
+        this.renderer = renderer;
+        this.workerThread = new SimpleAsyncTaskExecutor("email-dispatcher-");
+        this.workerThread.setDaemon(true);
+        // ✅ NEW: only switched on under the virtual profile, which needs Java 21
+        this.workerThread.setVirtualThreads(virtualThreads);
+        this.recipients = List.copyOf(recipients);
+        this.cc = List.copyOf(cc);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.digestWindow = digestWindow;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+    }
+
+    /**
+     * Starts the worker on a dedicated thread, a virtual one when {@code spring.threads.virtual.enabled}
+     * is set.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = workerThread.submit(this::processQueue);
+    }
+
+    /**
+     * Stops accepting new work, delivers what is already queued (without waiting for the
+     * digest window or retrying) and waits briefly for the worker to finish.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.cancel(true);
+            workerFinished.await(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Queues a "push completed" notice. Returns false if the queue is full and the notice was dropped.
+     */
+    public boolean notifyCompletion(String systemName, List<ExchangeRate> rates) {
+        return enqueue(new Notification(Kind.COMPLETION, systemName, List.copyOf(rates), LocalDateTime.now(),
+                PipelineRun.current().orElse(null)));
+    }
+
+    /**
+     * Queues a "push not done" alert. Returns false if the queue is full and the alert was dropped.
+     */
+    public boolean notifyFailure(String systemName) {
+        return enqueue(new Notification(Kind.FAILURE, systemName, List.of(), LocalDateTime.now(),
+                PipelineRun.current().orElse(null)));
+    }
+
+    private boolean enqueue(Notification notification) {
+        if (!running) {
+            logger.warn("Email dispatcher is not running, dropping {} email for {}",
+                    notification.kind(), notification.systemName());
+            return false;
+        }
+        boolean accepted = queue.offer(notification);
+        if (!accepted) {
+            logger.warn("Email queue is full ({} pending), dropping {} email for {}",
+                    queue.size(), notification.kind(), notification.systemName());
+        }
+        return accepted;
+    }
+
+    private void processQueue() {
+        try {
+            drainQueue();
+        } finally {
+            workerFinished.countDown();
+        }
+        logger.info("Email dispatcher stopped");
+    }
+
+    private void drainQueue() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                List<Notification> batch = new ArrayList<>();
+                batch.add(first);
+                if (first.kind() == Kind.COMPLETION && running) {
+                    collectDigest(batch);
+                }
+                queue.drainTo(batch);
+
+                deliver(batch);
+            } catch (InterruptedException e) {
+                // woken up by stop(); the loop drains whatever is still queued
+            } catch (Exception e) {
+                logger.error("Unexpected error in email dispatcher: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void collectDigest(List<Notification> batch) {
+        long deadline = System.nanoTime() + digestWindow.toNanos();
+        long remaining;
+        try {
+            while (running && (remaining = deadline - System.nanoTime()) > 0) {
+                Notification next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            }
+        } catch (InterruptedException e) {
+            // stop() cuts the digest wait short; whatever was collected is still delivered
+        }
+    }
+
+    private void deliver(List<Notification> batch) {
+        Map<List<Long>, List<Notification>> completionsBySnapshot = new LinkedHashMap<>();
+        Map<String, PipelineRun> failedSystems = new LinkedHashMap<>();
+
+        for (Notification notification : batch) {
+            if (notification.kind() == Kind.COMPLETION) {
+                completionsBySnapshot
+                        .computeIfAbsent(EmailTemplateRenderer.snapshotKey(notification.rates()), k -> new ArrayList<>())
+                        .add(notification);
+            } else {
+                failedSystems.putIfAbsent(notification.systemName(), notification.run());
+            }
+        }
+
+        for (List<Notification> group : completionsBySnapshot.values()) {
+            Set<String> systems = new LinkedHashSet<>();
+            group.forEach(n -> systems.add(n.systemName()));
+            Notification latest = group.get(group.size() - 1);
+
+            String subject = "Exchange Rate Push to " + String.join(" and ", systems) + " Completed";
+            String html = renderer.renderCompletion(systems, latest.rates(), latest.time());
+            send(latest.run(), String.join(",", systems), latest.rates().size(),
+                    new EmailMessage(recipients, cc, subject, html));
+        }
+
+        failedSystems.forEach((systemName, run) -> {
+            String subject = "Exchange Rate Not Pushed to " + systemName + " Please Contact IT";
+            send(run, systemName, 0, new EmailMessage(recipients, cc, subject, renderer.renderFailure(systemName)));
+        });
+    }
+
+    private void send(PipelineRun run, String target, int currencies, EmailMessage message) {
+        Supplier<Boolean> timed = () -> PipelineRun.time(Stage.EMAIL, target,
+                () -> sendWithRetry(message), sent -> currencies, sent -> !sent);
+        if (run == null) {
+            timed.get();
+        } else {
+            run.call(timed);
+        }
+    }
+
+    private boolean sendWithRetry(EmailMessage message) {
+        long backoffMillis = initialBackoff.toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                String result = transport.send(message);
+                logger.info("Email '{}' sent on attempt {}: {}", message.subject(), attempt, result);
+                return true;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts || !running) {
+                    logger.error("Giving up on email '{}' after {} attempt(s): {}",
+                            message.subject(), attempt, e.getMessage());
+                    return false;
+                }
+                logger.warn("Email '{}' failed on attempt {}, retrying in {} ms: {}",
+                        message.subject(), attempt, backoffMillis, e.getMessage());
+            }
+
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                // shutting down: the next loop iteration makes one final attempt
+            }
+            backoffMillis *= 2;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Renders notification emails from the HTML templates under {@code templates/email}.
+ * The rate table of a snapshot is rendered once and reused for every email about it.
+ */
+@Component
+public class EmailTemplateRenderer {
+
+    private static final int MAX_CACHED_SNAPSHOTS = 8;
+
+    private final String completionTemplate = loadTemplate("templates/email/completion.html");
+    private final String failureTemplate = loadTemplate("templates/email/failure.html");
+
+    private final Map<List<Long>, String> renderedRows =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Long>, String> eldest) {
+                    return size() > MAX_CACHED_SNAPSHOTS;
+                }
+            };
+
+    public String renderCompletion(Collection<String> systems, List<ExchangeRate> rates, LocalDateTime time) {
+        return completionTemplate
+                .replace("{{systems}}", HtmlUtils.htmlEscape(String.join(", ", systems)))
+                .replace("{{time}}", time.toString())
+                .replace("{{rows}}", rowsFor(rates));
+    }
+
+    public String renderFailure(String systemName) {
+        return failureTemplate.replace("{{systems}}", HtmlUtils.htmlEscape(systemName));
+    }
+
+    /**
+     * Identity of a scraped snapshot: the ids of its rows, in order.
+     */
+    public static List<Long> snapshotKey(List<ExchangeRate> rates) {
+        return rates.stream().map(ExchangeRate::getId).toList();
+    }
+
+    private String rowsFor(List<ExchangeRate> rates) {
+        List<Long> key = snapshotKey(rates);
+        if (key.stream().anyMatch(Objects::isNull)) {
+            return renderRows(rates);
+        }
+        synchronized (renderedRows) {
+            return renderedRows.computeIfAbsent(key, k -> renderRows(rates));
+        }
+    }
+
+    private String renderRows(List<ExchangeRate> rates) {
+        StringBuilder rows = new StringBuilder();
+        for (ExchangeRate rate : rates) {
+            double transferSell;
+            double banknoteSell;
+            try {
+                transferSell = Double.parseDouble(rate.getTransferSell());
+                banknoteSell = Double.parseDouble(rate.getBanknoteSell());
+            } catch (NumberFormatException | NullPointerException e) {
+                continue;
+            }
+
+            // Skip if both are zero
+            if (transferSell == 0 && banknoteSell == 0) {
+                continue;
+            }
+
+            double conversionRate = (transferSell != 0) ? transferSell : banknoteSell;
+
+            rows.append("<tr>")
+                    .append("<td>").append(HtmlUtils.htmlEscape(rate.getCurrency())).append("</td>")
+                    .append("<td>").append(conversionRate).append("</td>")
+                    .append("</tr>\n");
+        }
+        return rows.toString();
+    }
+
+    private static String loadTemplate(String path) {
+        try (var in = new ClassPathResource(path).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load email template " + path, e);
+        }
+    }
+}
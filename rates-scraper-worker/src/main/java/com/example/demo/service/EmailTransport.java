@@ -0,0 +1,10 @@
+package com.example.demo.service;
+
+/**
+ * Delivers a rendered {@link EmailMessage}. Implementations should throw on any delivery
+ * failure so the dispatcher can retry.
+ */
+public interface EmailTransport {
+
+    String send(EmailMessage message) throws Exception;
+}
@@ -0,0 +1,113 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.repository.ExchangeRateRepository;
+import com.example.demo.journal.PipelineRun;
+import com.example.demo.journal.Stage;
+import com.example.demo.resilience.Deadline;
+import com.example.demo.resilience.DependencyGuards;
+import com.example.demo.validation.RateValidationGate;
+import lombok.RequiredArgsConstructor;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+
+
+@Service
+@RequiredArgsConstructor
+public class ExchangeRateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeRateService.class);
+    static final String NBE = "nbe";
+    private static final Duration MAX_PAGE_WAIT = Duration.ofSeconds(20);
+
+    private final ExchangeRateRepository repository;
+    private final EmailNotificationDispatcher notificationDispatcher;
+    private final NbeRatePageParser parser;
+    private final PageArchive pageArchive;
+    private final DependencyGuards guards;
+    private final RateValidationGate gate;
+    private final RateRevisions revisions;
+
+    /**
+     * Scrapes the NBE page and saves the rates. Runs through the {@value #NBE} dependency guard, so
+     * the browser gets at most the guard's timeout and repeated failures stop further attempts
+     * for a while. Returns no rates on any failure.
+     */
+    public List<ExchangeRate> scrapeAndSaveRates() {
+        try {
+            return guards.guard(NBE).call(this::scrapeWithBrowser, List::isEmpty);
+        } catch (Exception e) {
+            logger.error("Scraping failed: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private List<ExchangeRate> scrapeWithBrowser() {
+        // ✅ Use the correct full path to your local ChromeDriver binary
+        System.setProperty("webdriver.edge.driver", "C:\\edgedriver\\msedgedriver.exe");//C:\edgedriver\msedgedriver.exe ...driver/msedgedriver.exe
+
+        EdgeOptions options = new EdgeOptions();
+        options.addArguments("--headless=new");
+        options.addArguments("--disable-gpu");
+        options.addArguments("--window-size=1920,1080");
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+
+        Deadline deadline = Deadline.current().orElseGet(() -> Deadline.after(MAX_PAGE_WAIT));
+        WebDriver driver = PipelineRun.time(Stage.BROWSER_LAUNCH, NBE, () -> new EdgeDriver(options), d -> 0);
+        List<ExchangeRate> rates = new ArrayList<>();
+
+        try {
+            String pageSource = PipelineRun.time(Stage.PAGE_WAIT, NBE, () -> {
+                driver.manage().timeouts().pageLoadTimeout(deadline.remaining());
+                driver.get("https://www.nbe.com.eg/NBE/E/#/EN/ExchangeRatesAndCurrencyConverter");
+
+                deadline.check("waiting for the rates table");
+                Duration wait = deadline.remaining().compareTo(MAX_PAGE_WAIT) < 0 ? deadline.remaining() : MAX_PAGE_WAIT;
+                WebDriverWait webDriverWait = new WebDriverWait(driver, wait);
+                webDriverWait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(By.cssSelector("table.currency-table")));
+                return driver.getPageSource();
+            }, page -> 0);
+
+            LocalDateTime fetchedAt = LocalDateTime.now();
+            pageArchive.store(pageSource, fetchedAt);
+
+            rates.addAll(PipelineRun.time(Stage.PARSE, NBE, () -> parser.parse(pageSource, fetchedAt),
+                    List::size, List::isEmpty));
+
+            if (rates.isEmpty()) {
+                logger.error("No rates extracted! Page structure may have changed");
+            } else {
+//                repository.deleteAll();
+                PipelineRun.time(Stage.SAVE, "local", () -> repository.saveAll(rates), saved -> rates.size());
+                // ✅ NEW: ids of concurrent inserts can commit out of order, so readers polling
+                // past the highest id they have seen also need the marker to move
+                revisions.bump();
+                logger.info("Successfully scraped {} currencies", rates.size());
+                // ✅ NEW: hold back outliers before anything pushes them
+                PipelineRun.time(Stage.VALIDATE, "local", () -> gate.inspect(rates), held -> rates.size());
+            }
+        } finally {
+            driver.quit();
+        }
+
+        return rates;
+    }
+
+    public void sendTestEmail() {
+        notificationDispatcher.notifyFailure("Test-System");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.example.demo.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Command-line import: {@code --import.file=history.csv[.gz]} (or {@code .json[.gz]}) imports the
+ * file and exits before the scheduler starts. Without the option this runner does nothing.
+ */
+@Component
+@RequiredArgsConstructor
+public class HistoryImportCommand implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryImportCommand.class);
+
+    private final RateHistoryImporter importer;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("import.file")) {
+            return;
+        }
+        int exitCode = 0;
+        for (String file : args.getOptionValues("import.file")) {
+            Path path = Path.of(file);
+            String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            try (InputStream raw = Files.newInputStream(path);
+                 InputStream in = name.endsWith(".gz") ? new GZIPInputStream(raw, 1 << 16) : raw) {
+                Map<String, Object> result = name.endsWith(".json") || name.endsWith(".json.gz")
+                        ? importer.importJson(in)
+                        : importer.importCsv(in);
+                logger.info("Imported {}: {}", path, result);
+            } catch (Exception e) {
+                logger.error("Import of {} failed: {}", path, e.getMessage(), e);
+                exitCode = 1;
+            }
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
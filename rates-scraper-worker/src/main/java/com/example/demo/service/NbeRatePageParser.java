@@ -0,0 +1,107 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extracts exchange rates from the NBE rates page source. Pure function of the HTML, so live
+ * scrapes and archive replays produce the same rows from the same page.
+ */
+@Component
+public class NbeRatePageParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(NbeRatePageParser.class);
+
+    public List<ExchangeRate> parse(String pageSource, LocalDateTime scrapedAt) {
+        List<ExchangeRate> rates = new ArrayList<>();
+        Document doc = Jsoup.parse(pageSource);
+        Element firstTable = doc.select("table.currency-table").first();
+        if (firstTable == null) {
+            logger.warn("Rates table not found in page");
+            return rates;
+        }
+
+        for (Element row : firstTable.select("tbody tr")) {
+            try {
+                Element currencyElement = row.selectFirst("td.currency-cell span.currency-name, td#flag span:last-child");
+                if (currencyElement == null) {
+                    logger.warn("Skipping row - currency element not found: {}", row.html());
+                    continue;
+                }
+
+                String currency = currencyElement.text().trim();
+                if (currency.isEmpty() || currency.equalsIgnoreCase("Currency")) {
+                    continue;
+                }
+
+                var banknoteRows = row.select("td.banknote-cell table tr, td#Banknote table tr");
+                var transferRows = row.select("td.transfer-cell table tr, td#Transfer table tr");
+
+                if (banknoteRows.size() < 2 || transferRows.size() < 2) {
+                    logger.warn("Skipping {} - insufficient data rows", currency);
+                    continue;
+                }
+
+                String banknoteBuy = safeExtract(banknoteRows.get(0), 1);
+                String banknoteSell = safeExtract(banknoteRows.get(1), 1);
+                String transferBuy = safeExtract(transferRows.get(0), 1);
+                String transferSell = safeExtract(transferRows.get(1), 1);
+                if (currency.equalsIgnoreCase("YENS(100)")) {
+                    try {
+                        if (banknoteBuy != null) {
+                            double val = Double.parseDouble(banknoteBuy) / 100.0;
+                            banknoteBuy = String.format("%.6f", val);
+                        }
+                        if (banknoteSell != null) {
+                            double val = Double.parseDouble(banknoteSell) / 100.0;
+                            banknoteSell = String.format("%.6f", val);
+                        }
+                        if (transferBuy != null) {
+                            double val = Double.parseDouble(transferBuy) / 100.0;
+                            transferBuy = String.format("%.6f", val);
+                        }
+                        if (transferSell != null) {
+                            double val = Double.parseDouble(transferSell) / 100.0;
+                            transferSell = String.format("%.6f", val);
+                        }
+                    } catch (NumberFormatException e) {
+                        logger.warn("Invalid numeric format for YENS(100): {}", e.getMessage());
+                    }
+                }
+                if (banknoteBuy == null || banknoteSell == null ||
+                        transferBuy == null || transferSell == null) {
+                    logger.warn("Skipping {} - missing rate values", currency);
+                    continue;
+                }
+
+                rates.add(ExchangeRate.builder()
+                        .currency(currency)
+                        .banknoteBuy(banknoteBuy)
+                        .banknoteSell(banknoteSell)
+                        .transferBuy(transferBuy)
+                        .transferSell(transferSell)
+                        .scrapedAt(scrapedAt)
+                        .build());
+
+            } catch (Exception e) {
+                logger.error("Error processing row: {}", e.getMessage());
+            }
+        }
+        return rates;
+    }
+
+    private String safeExtract(Element row, int cellIndex) {
+        if (row == null) return null;
+        List<Element> cells = row.select("td");
+        return (cells.size() > cellIndex) ? cells.get(cellIndex).text().trim() : null;
+    }
+}
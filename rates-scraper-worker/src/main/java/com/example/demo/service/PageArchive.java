@@ -0,0 +1,87 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ArchivedPage;
+import com.example.demo.entity.PageFetch;
+import com.example.demo.repository.ArchivedPageRepository;
+import com.example.demo.repository.PageFetchRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed archive of fetched rate pages. A page is stored once, gzip-compressed, under
+ * the SHA-256 of its source; every fetch adds a small {@link PageFetch} row pointing at it.
+ */
+@Service
+@RequiredArgsConstructor
+public class PageArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageArchive.class);
+
+    private final ArchivedPageRepository pageRepository;
+    private final PageFetchRepository fetchRepository;
+
+    /**
+     * Records a fetch. Never throws: losing an archive entry must not fail the scrape.
+     */
+    public void store(String pageSource, LocalDateTime fetchedAt) {
+        try {
+            byte[] raw = pageSource.getBytes(StandardCharsets.UTF_8);
+            String hash = sha256(raw);
+            if (!pageRepository.existsById(hash)) {
+                try {
+                    pageRepository.saveAndFlush(new ArchivedPage(hash, gzip(raw), raw.length, fetchedAt));
+                } catch (DataIntegrityViolationException e) {
+                    // the same page was archived concurrently
+                }
+            }
+            fetchRepository.save(new PageFetch(null, hash, fetchedAt));
+        } catch (Exception e) {
+            logger.warn("Could not archive fetched page: {}", e.getMessage());
+        }
+    }
+
+    public String load(ArchivedPage page) {
+        return new String(gunzip(page.getContent()), StandardCharsets.UTF_8);
+    }
+
+    static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ArchivedPage;
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.entity.PageFetch;
+import com.example.demo.repository.ArchivedPageRepository;
+import com.example.demo.repository.ExchangeRateRepository;
+import com.example.demo.repository.PageFetchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Regenerates EXCHANGE_RATE rows from the page archive, for example after a parser fix or an
+ * NBE layout change. Works offline: only archived pages are read.
+ * <p>
+ * Fetches are processed in time order in windows of {@code replay.batch-size}. Each distinct
+ * page in a window is parsed once, in parallel on a fork/join pool, and each day's rows are
+ * inserted as one JDBC batch. Only the rows of archived fetches (same scrape time) are replaced:
+ * rows imported, scraped before archiving started or whose page failed to archive have no fetch and
+ * are kept, and the days holding them are reported. Every replaced day bumps the {@link RateRevisions}
+ * marker, so the API drops what it has cached of the old rows.
+ */
+@Service
+public class PageReplayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageReplayService.class);
+
+    private final PageFetchRepository fetchRepository;
+    private final ArchivedPageRepository pageRepository;
+    private final ExchangeRateRepository rateRepository;
+    private final ExchangeRateBatchInserter inserter;
+    private final RateRevisions revisions;
+    private final PageArchive archive;
+    private final NbeRatePageParser parser;
+    private final TransactionTemplate transactions;
+    private final int parallelism;
+    private final int batchSize;
+
+    public PageReplayService(PageFetchRepository fetchRepository,
+                             ArchivedPageRepository pageRepository,
+                             ExchangeRateRepository rateRepository,
+                             ExchangeRateBatchInserter inserter,
+                             RateRevisions revisions,
+                             PageArchive archive,
+                             NbeRatePageParser parser,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${replay.parallelism:0}") int parallelism,
+                             @Value("${replay.batch-size:500}") int batchSize) {
+        this.fetchRepository = fetchRepository;
+        this.pageRepository = pageRepository;
+        this.rateRepository = rateRepository;
+        this.inserter = inserter;
+        this.revisions = revisions;
+        this.archive = archive;
+        this.parser = parser;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Replays the archived fetches of {@code [from, to]}. With {@code dryRun} nothing is written;
+     * the result still reports how many rows the archive would produce.
+     * <p>
+     * Pages are parsed before anything is deleted, and each day is then deleted and re-inserted in
+     * its own transaction, so a failure part way leaves every day either untouched or fully replaced.
+     * Days whose fetches parse to no rows at all keep their existing rows and are listed in
+     * {@code skippedDays}; days that also hold rows no fetch accounts for are listed in
+     * {@code daysWithUnarchivedRows}, dry run included.
+     */
+    public Map<String, Object> replay(LocalDate from, LocalDate to, boolean dryRun) {
+        long started = System.nanoTime();
+        List<PageFetch> fetches = fetchRepository.findByFetchedAtGreaterThanEqualAndFetchedAtLessThanOrderByFetchedAtAscIdAsc(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        Map<LocalDate, List<PageFetch>> fetchesByDay = fetches.stream()
+                .collect(Collectors.groupingBy(fetch -> fetch.getFetchedAt().toLocalDate(),
+                        LinkedHashMap::new, Collectors.toList()));
+        List<LocalDate> days = new ArrayList<>(fetchesByDay.keySet());
+
+        // parsed rows per page hash, without timestamps; pages repeat across fetches, so keep them for the run
+        Map<String, List<ExchangeRate>> parsed = new HashMap<>();
+        List<LocalDate> skippedDays = new ArrayList<>();
+        List<LocalDate> daysWithUnarchivedRows = new ArrayList<>();
+        long kept = 0;
+        int daysReplaced = 0;
+        long deleted = 0;
+        int inserted = 0;
+        int generated = 0;
+        int emptyFetches = 0;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            int next = 0;
+            while (next < days.size()) {
+                // whole days, up to batch-size fetches, have their new pages parsed together
+                List<LocalDate> window = new ArrayList<>();
+                List<PageFetch> windowFetches = new ArrayList<>();
+                do {
+                    LocalDate day = days.get(next++);
+                    window.add(day);
+                    windowFetches.addAll(fetchesByDay.get(day));
+                } while (next < days.size()
+                        && windowFetches.size() + fetchesByDay.get(days.get(next)).size() <= batchSize);
+                parsed.putAll(parseMissing(windowFetches, parsed, pool));
+
+                for (LocalDate day : window) {
+                    List<ExchangeRate> rows = new ArrayList<>();
+                    // scrape times whose rows this replay regenerates; a fetch that parses to nothing keeps its rows
+                    Set<LocalDateTime> replaced = new HashSet<>();
+                    for (PageFetch fetch : fetchesByDay.get(day)) {
+                        List<ExchangeRate> template = parsed.getOrDefault(fetch.getPageHash(), List.of());
+                        if (template.isEmpty()) {
+                            emptyFetches++;
+                        } else {
+                            replaced.add(fetch.getFetchedAt());
+                        }
+                        for (ExchangeRate rate : template) {
+                            rows.add(ExchangeRate.builder()
+                                    .currency(rate.getCurrency())
+                                    .banknoteBuy(rate.getBanknoteBuy())
+                                    .banknoteSell(rate.getBanknoteSell())
+                                    .transferBuy(rate.getTransferBuy())
+                                    .transferSell(rate.getTransferSell())
+                                    .scrapedAt(fetch.getFetchedAt())
+                                    .build());
+                        }
+                    }
+                    generated += rows.size();
+                    if (rows.isEmpty()) {
+                        logger.warn("Archived pages of {} parse to no rates, keeping its existing rows", day);
+                        skippedDays.add(day);
+                        continue;
+                    }
+                    long dayKept = rateRepository.countInRangeExcept(day.atStartOfDay(), day.plusDays(1).atStartOfDay(), replaced);
+                    if (dayKept > 0) {
+                        logger.warn("{} has {} rows without an archived page, keeping them", day, dayKept);
+                        daysWithUnarchivedRows.add(day);
+                        kept += dayKept;
+                    }
+                    if (dryRun) {
+                        deleted += rateRepository.countByScrapedAtIn(replaced);
+                    } else {
+                        int[] counts = transactions.execute(status -> {
+                            int dayDeleted = rateRepository.deleteByScrapedAtIn(replaced);
+                            int dayInserted = inserter.insert(rows);
+                            revisions.bump();
+                            return new int[]{dayDeleted, dayInserted};
+                        });
+                        deleted += counts[0];
+                        inserted += counts[1];
+                    }
+                    daysReplaced++;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("from", from);
+        result.put("to", to);
+        result.put("dryRun", dryRun);
+        result.put("fetches", fetches.size());
+        result.put("distinctPages", parsed.size());
+        result.put("fetchesWithoutRates", emptyFetches);
+        result.put(dryRun ? "daysToReplace" : "daysReplaced", daysReplaced);
+        result.put("skippedDays", skippedDays);
+        result.put("daysWithUnarchivedRows", daysWithUnarchivedRows);
+        result.put(dryRun ? "rowsToDelete" : "rowsDeleted", deleted);
+        result.put("rowsKept", kept);
+        result.put("rowsGenerated", generated);
+        result.put("rowsInserted", inserted);
+        result.put("elapsedMillis", millis);
+        logger.info("Page replay finished: {}", result);
+        return result;
+    }
+
+    private Map<String, List<ExchangeRate>> parseMissing(List<PageFetch> window, Map<String, List<ExchangeRate>> parsed,
+                                                         ForkJoinPool pool) {
+        Set<String> missing = window.stream()
+                .map(PageFetch::getPageHash)
+                .filter(hash -> !parsed.containsKey(hash))
+                .collect(Collectors.toSet());
+        if (missing.isEmpty()) {
+            return Map.of();
+        }
+
+        List<ArchivedPage> pages = pageRepository.findAllById(missing);
+        Map<String, List<ExchangeRate>> result = new ConcurrentHashMap<>();
+        try {
+            pool.submit(() -> pages.parallelStream().forEach(page ->
+                    result.put(page.getHash(), parser.parse(archive.load(page), null)))).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Replay interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Replay failed while parsing pages", e.getCause());
+        }
+        return result;
+    }
+}
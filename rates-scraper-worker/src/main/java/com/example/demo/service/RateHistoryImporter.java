@@ -0,0 +1,240 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Streams historical rate files (CSV or JSON) into EXCHANGE_RATE.
+ * <p>
+ * Input is read record by record and written in chunks of {@code import.batch-size} rows, so
+ * memory stays flat whatever the file size. Currency names or ISO codes are normalized to the
+ * NBE names the scraper stores, and a (day, currency) that already has a row is skipped. A row is
+ * rejected when its currency is not mapped or a value is not a plain decimal such as {@code 30.90}.
+ * <p>
+ * Fields: {@code date} (yyyy-MM-dd, stored at midnight) or {@code scrapedAt} (ISO date-time),
+ * {@code currency}, {@code banknoteBuy}, {@code banknoteSell}, {@code transferBuy},
+ * {@code transferSell}. Header and key names are matched ignoring case and underscores.
+ * Values are taken as stored, so YENS(100) must already be per single yen.
+ */
+@Service
+public class RateHistoryImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateHistoryImporter.class);
+    private static final int MAX_REPORTED_ERRORS = 10;
+    // no sign, exponent or grouping: ScaledPrice.parse would read "30,90" as 3090
+    private static final Pattern DECIMAL = Pattern.compile("\\d+(\\.\\d+)?");
+
+    private final ExchangeRateBatchInserter inserter;
+    private final RateRevisions revisions;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final int batchSize;
+
+    public RateHistoryImporter(ExchangeRateBatchInserter inserter, RateRevisions revisions,
+                               @Value("${import.batch-size:5000}") int batchSize) {
+        this.inserter = inserter;
+        this.revisions = revisions;
+        this.batchSize = batchSize;
+    }
+
+    public Map<String, Object> importCsv(InputStream in) throws IOException {
+        Run run = new Run();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return run.finish();
+        }
+        String[] header = splitCsv(headerLine.startsWith("\uFEFF") ? headerLine.substring(1) : headerLine);
+        Map<String, String> record = new HashMap<>();
+        String line;
+        long lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] cells = splitCsv(line);
+            record.clear();
+            for (int i = 0; i < header.length && i < cells.length; i++) {
+                record.put(key(header[i]), cells[i]);
+            }
+            run.accept(record, "line " + lineNumber);
+        }
+        return run.finish();
+    }
+
+    public Map<String, Object> importJson(InputStream in) throws IOException {
+        Run run = new Run();
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of rate objects");
+            }
+            Map<String, String> record = new HashMap<>();
+            long index = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                record.clear();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = key(parser.currentName());
+                    JsonToken value = parser.nextToken();
+                    if (value.isStructStart()) {
+                        parser.skipChildren();
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        record.put(field, parser.getText());
+                    }
+                }
+                run.accept(record, "element " + index++);
+            }
+        }
+        return run.finish();
+    }
+
+    private static String key(String name) {
+        return name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields and doubled quotes inside them.
+     */
+    static String[] splitCsv(String line) {
+        List<String> cells = new ArrayList<>(8);
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString().trim());
+        return cells.toArray(new String[0]);
+    }
+
+    /**
+     * State of one import: the pending chunk and the counters reported at the end.
+     */
+    private final class Run {
+        private final long started = System.nanoTime();
+        private final List<ExchangeRate> chunk = new ArrayList<>(batchSize);
+        private final List<String> errors = new ArrayList<>();
+        private long read;
+        private long rejected;
+        private long unmapped;
+        private long inserted;
+
+        void accept(Map<String, String> record, String position) {
+            read++;
+            try {
+                chunk.add(toRate(record));
+            } catch (RuntimeException e) {
+                rejected++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(position + ": " + e.getMessage());
+                }
+                return;
+            }
+            if (chunk.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private ExchangeRate toRate(Map<String, String> record) {
+            String currency = require(record, "currency");
+            String canonical = CurrencyRegistry.canonicalName(currency);
+            if (canonical == null) {
+                unmapped++;
+                throw new IllegalArgumentException("unknown currency " + currency);
+            }
+            return ExchangeRate.builder()
+                    .currency(canonical)
+                    .banknoteBuy(decimal(record, "banknotebuy"))
+                    .banknoteSell(decimal(record, "banknotesell"))
+                    .transferBuy(decimal(record, "transferbuy"))
+                    .transferSell(decimal(record, "transfersell"))
+                    .scrapedAt(timestamp(record))
+                    .build();
+        }
+
+        private LocalDateTime timestamp(Map<String, String> record) {
+            String scrapedAt = record.get("scrapedat");
+            if (scrapedAt != null && !scrapedAt.isBlank()) {
+                return LocalDateTime.parse(scrapedAt.trim().replace(' ', 'T'));
+            }
+            return LocalDate.parse(require(record, "date").trim()).atStartOfDay();
+        }
+
+        private String decimal(Map<String, String> record, String field) {
+            String value = require(record, field);
+            if (!DECIMAL.matcher(value).matches()) {
+                throw new IllegalArgumentException(field + " is not a decimal: " + value);
+            }
+            return value;
+        }
+
+        private String require(Map<String, String> record, String field) {
+            String value = record.get(field);
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException("missing " + field);
+            }
+            return value.trim();
+        }
+
+        private void flush() {
+            inserted += inserter.insertNewPerDay(chunk);
+            chunk.clear();
+        }
+
+        Map<String, Object> finish() {
+            flush();
+            if (inserted > 0) {
+                // back-filled days are not at the end of the id range; tell readers to reload
+                revisions.bump();
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("rowsRead", read);
+            result.put("rowsInserted", inserted);
+            result.put("duplicatesSkipped", read - rejected - inserted);
+            result.put("rowsRejected", rejected);
+            result.put("unmappedCurrencies", unmapped);
+            result.put("elapsedMillis", Math.round(seconds * 1000));
+            result.put("rowsPerSecond", seconds > 0 ? Math.round(read / seconds) : read);
+            result.put("errors", errors);
+            logger.info("Rate history import finished: {}", result);
+            return result;
+        }
+    }
+}
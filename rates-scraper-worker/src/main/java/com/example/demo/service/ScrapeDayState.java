@@ -0,0 +1,64 @@
+package com.example.demo.service;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What the scheduler knows about one business day. Whether the day was already scraped is
+ * confirmed against the local database once, on the first wake-up of the day; if it was, the
+ * sinks are probed once too, so a restart does not send their completion emails again.
+ */
+@Data
+public class ScrapeDayState {
+
+    private final LocalDate date;
+    // sinks the day's rates must reach, in push order
+    private final List<String> sinks;
+    // read by the status endpoint while the scheduler adds to it
+    private final Set<String> pushedSinks = ConcurrentHashMap.newKeySet();
+    // sinks that already held the day when this instance first looked
+    private final Set<String> alreadyHeldSinks = ConcurrentHashMap.newKeySet();
+    private boolean verified;
+    private boolean scraped;
+    private boolean failureAlertChecked;
+    private int consecutiveFailures;
+
+    public ScrapeDayState(LocalDate date, Collection<String> sinks) {
+        this.date = date;
+        this.sinks = List.copyOf(sinks);
+    }
+
+    public void markPushed(String sink) {
+        pushedSinks.add(sink);
+    }
+
+    public void markAlreadyHeld(String sink) {
+        alreadyHeldSinks.add(sink);
+    }
+
+    public boolean wasAlreadyHeld(String sink) {
+        return alreadyHeldSinks.contains(sink);
+    }
+
+    public List<String> getPendingSinks() {
+        return sinks.stream().filter(sink -> !pushedSinks.contains(sink)).toList();
+    }
+
+    public ScrapePhase getPhase() {
+        if (!scraped) {
+            return ScrapePhase.AWAITING_SCRAPE;
+        }
+        if (pushedSinks.containsAll(sinks)) {
+            return ScrapePhase.DONE;
+        }
+        if (!pushedSinks.isEmpty()) {
+            return ScrapePhase.PARTIALLY_PUSHED;
+        }
+        return ScrapePhase.SCRAPED;
+    }
+}
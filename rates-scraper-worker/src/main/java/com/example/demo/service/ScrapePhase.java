@@ -0,0 +1,14 @@
+package com.example.demo.service;
+
+/**
+ * Progress of the daily scrape-and-push pipeline.
+ */
+public enum ScrapePhase {
+    AWAITING_SCRAPE,
+    SCRAPED,
+    /**
+     * Some sinks have the day's rates, others are still pending.
+     */
+    PARTIALLY_PUSHED,
+    DONE
+}
@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+/**
+ * Computes when the scrape scheduler should wake up next, given the state of the day.
+ * <ul>
+ *     <li>Outside the publishing window, on weekends and on holidays: sleep until the window opens on the next business day.</li>
+ *     <li>Inside the window: poll every {@code pollInterval}, doubling after each consecutive failure up to {@code maxBackoff}.</li>
+ *     <li>Once every target is done: stay idle until the next business day.</li>
+ *     <li>The failure-alert check always gets its own wake-up if it has not run yet.</li>
+ * </ul>
+ */
+public class ScrapeSchedulePlanner {
+
+    private final ZoneId zone;
+    private final LocalTime windowStart;
+    private final LocalTime windowEnd;
+    private final Duration pollInterval;
+    private final Duration maxBackoff;
+    private final LocalTime failureAlertTime;
+    private final Set<DayOfWeek> weekendDays;
+    private final Set<LocalDate> holidays;
+
+    public ScrapeSchedulePlanner(ZoneId zone, LocalTime windowStart, LocalTime windowEnd,
+                                 Duration pollInterval, Duration maxBackoff, LocalTime failureAlertTime,
+                                 Set<DayOfWeek> weekendDays, Set<LocalDate> holidays) {
+        if (!windowStart.isBefore(windowEnd)) {
+            throw new IllegalArgumentException("Scrape window start must be before its end");
+        }
+        if (weekendDays.size() >= DayOfWeek.values().length) {
+            throw new IllegalArgumentException("At least one day of the week must be a business day");
+        }
+        this.zone = zone;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.pollInterval = pollInterval;
+        this.maxBackoff = maxBackoff;
+        this.failureAlertTime = failureAlertTime;
+        this.weekendDays = Set.copyOf(weekendDays);
+        this.holidays = Set.copyOf(holidays);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public boolean isBusinessDay(LocalDate date) {
+        return !weekendDays.contains(date.getDayOfWeek()) && !holidays.contains(date);
+    }
+
+    public boolean isInWindow(ZonedDateTime now) {
+        LocalTime time = now.withZoneSameInstant(zone).toLocalTime();
+        return !time.isBefore(windowStart) && time.isBefore(windowEnd);
+    }
+
+    public boolean isFailureAlertDue(ScrapeDayState state, ZonedDateTime now) {
+        ZonedDateTime local = now.withZoneSameInstant(zone);
+        return !state.isFailureAlertChecked()
+                && isBusinessDay(local.toLocalDate())
+                && !local.toLocalTime().isBefore(failureAlertTime);
+    }
+
+    /**
+     * Next wake-up strictly after {@code now}. {@code state} must belong to the current local day.
+     */
+    public ZonedDateTime nextWakeUp(ScrapeDayState state, ZonedDateTime now) {
+        ZonedDateTime local = now.withZoneSameInstant(zone);
+        LocalDate today = local.toLocalDate();
+
+        if (!isBusinessDay(today)) {
+            return nextWindowOpening(today);
+        }
+
+        ZonedDateTime opening = today.atTime(windowStart).atZone(zone);
+        ZonedDateTime closing = today.atTime(windowEnd).atZone(zone);
+        ZonedDateTime alert = today.atTime(failureAlertTime).atZone(zone);
+        boolean alertPending = !state.isFailureAlertChecked() && alert.isAfter(local);
+
+        ZonedDateTime candidate;
+        if (local.isBefore(opening)) {
+            candidate = opening;
+        } else if (state.getPhase() == ScrapePhase.DONE || !local.isBefore(closing)) {
+            candidate = nextWindowOpening(today);
+        } else {
+            candidate = local.plus(backoff(state.getConsecutiveFailures()));
+            if (!candidate.isBefore(closing)) {
+                candidate = nextWindowOpening(today);
+            }
+        }
+
+        if (alertPending && alert.isBefore(candidate)) {
+            candidate = alert;
+        }
+        return candidate;
+    }
+
+    Duration backoff(int consecutiveFailures) {
+        Duration delay = pollInterval;
+        for (int i = 0; i < consecutiveFailures && delay.compareTo(maxBackoff) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private ZonedDateTime nextWindowOpening(LocalDate today) {
+        LocalDate day = today.plusDays(1);
+        while (!isBusinessDay(day)) {
+            day = day.plusDays(1);
+        }
+        return day.atTime(windowStart).atZone(zone);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Default transport that relays through the shared {@code Utils.sendEmail} mail gateway.
+ */
+@Component
+public class UtilsEmailTransport implements EmailTransport {
+
+    @Override
+    public String send(EmailMessage message) {
+        List<Map<String, Object>> recipients = message.to().stream()
+                .map(address -> Map.<String, Object>of("EMAIL_ADDRESS", address))
+                .toList();
+        String cc = String.join(",", message.cc());
+        String attachmentId = "";
+
+        return Utils.sendEmail(recipients, message.subject(), message.html(), cc, attachmentId);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.service;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Just the JPA repositories and the archive and replay services, for tests against an in-memory H2.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan("com.example.demo.entity")
+@EnableJpaRepositories("com.example.demo.repository")
+@Import({PageArchive.class, PageReplayService.class, NbeRatePageParser.class, ExchangeRateBatchInserter.class,
+        RateRevisions.class})
+class ArchiveTestApplication {
+}
@@ -0,0 +1,100 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailNotificationDispatcherTest {
+
+    /**
+     * In-process stand-in for the mail relay: records delivered messages and can be told
+     * to reject the first few attempts.
+     */
+    static class LocalMailRelay implements EmailTransport {
+        final List<EmailMessage> delivered = new CopyOnWriteArrayList<>();
+        final AtomicInteger attempts = new AtomicInteger();
+        final CountDownLatch latch;
+        final int failuresBeforeSuccess;
+
+        LocalMailRelay(int expectedDeliveries, int failuresBeforeSuccess) {
+            this.latch = new CountDownLatch(expectedDeliveries);
+            this.failuresBeforeSuccess = failuresBeforeSuccess;
+        }
+
+        @Override
+        public String send(EmailMessage message) throws Exception {
+            if (attempts.incrementAndGet() <= failuresBeforeSuccess) {
+                throw new Exception("421 service not available");
+            }
+            delivered.add(message);
+            latch.countDown();
+            return "250 OK";
+        }
+    }
+
+    private EmailNotificationDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    private EmailNotificationDispatcher start(LocalMailRelay relay, Duration digestWindow) {
+        dispatcher = new EmailNotificationDispatcher(relay, new EmailTemplateRenderer(), false,
+                List.of("finance@example.com"), List.of("it@example.com"),
+                10, digestWindow, 3, Duration.ofMillis(10));
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    private static List<ExchangeRate> snapshot() {
+        return List.of(
+                new ExchangeRate(1L, "US DOLLAR", "48.50", "48.40", "48.55", "48.45", LocalDateTime.now()),
+                new ExchangeRate(2L, "EURO", "0", "52.10", "52.30", "52.00", LocalDateTime.now()));
+    }
+
+    @Test
+    void coalescesCompletionsOfTheSameSnapshotIntoOneDigest() throws InterruptedException {
+        LocalMailRelay relay = new LocalMailRelay(1, 0);
+        start(relay, Duration.ofMillis(500));
+
+        List<ExchangeRate> rates = snapshot();
+        dispatcher.notifyCompletion("Oracle", rates);
+        dispatcher.notifyCompletion("AS400", rates);
+
+        assertTrue(relay.latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(1, relay.delivered.size());
+
+        EmailMessage message = relay.delivered.get(0);
+        assertEquals("Exchange Rate Push to Oracle and AS400 Completed", message.subject());
+        assertEquals(List.of("finance@example.com"), message.to());
+        assertTrue(message.html().contains("<td>US DOLLAR</td><td>48.5</td>"));
+        assertTrue(message.html().contains("<td>EURO</td><td>52.3</td>"));
+    }
+
+    @Test
+    void retriesFailedDeliveriesWithBackoff() throws InterruptedException {
+        LocalMailRelay relay = new LocalMailRelay(1, 2);
+        start(relay, Duration.ZERO);
+
+        assertTrue(dispatcher.notifyFailure("Oracle"));
+
+        assertTrue(relay.latch.await(5, TimeUnit.SECONDS));
+        assertEquals(3, relay.attempts.get());
+        assertEquals("Exchange Rate Not Pushed to Oracle Please Contact IT", relay.delivered.get(0).subject());
+    }
+}
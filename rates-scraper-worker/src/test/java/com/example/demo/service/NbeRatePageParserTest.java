@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.demo.service.NbeTestPages.page;
+import static com.example.demo.service.NbeTestPages.row;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NbeRatePageParserTest {
+
+    private static final LocalDateTime SCRAPED_AT = LocalDateTime.of(2025, 10, 28, 16, 5);
+
+    private final NbeRatePageParser parser = new NbeRatePageParser();
+
+    @Test
+    void parsesEveryCurrencyRow() {
+        List<ExchangeRate> rates = parser.parse(page(
+                row("US DOLLAR", "48.45", "48.55", "48.40", "48.50"),
+                row("EURO", "52.10", "52.40", "52.05", "52.30")), SCRAPED_AT);
+
+        assertEquals(2, rates.size());
+        ExchangeRate usd = rates.get(0);
+        assertEquals("US DOLLAR", usd.getCurrency());
+        assertEquals("48.45", usd.getBanknoteBuy());
+        assertEquals("48.55", usd.getBanknoteSell());
+        assertEquals("48.40", usd.getTransferBuy());
+        assertEquals("48.50", usd.getTransferSell());
+        assertEquals(SCRAPED_AT, usd.getScrapedAt());
+        assertEquals("EURO", rates.get(1).getCurrency());
+    }
+
+    @Test
+    void dividesYensByOneHundred() {
+        ExchangeRate yen = parser.parse(page(row("YENS(100)", "3190.5", "3210", "3185", "3205.25")), SCRAPED_AT).get(0);
+
+        assertEquals(31.905, Double.parseDouble(yen.getBanknoteBuy()), 1e-9);
+        assertEquals(32.10, Double.parseDouble(yen.getBanknoteSell()), 1e-9);
+        assertEquals(31.85, Double.parseDouble(yen.getTransferBuy()), 1e-9);
+        assertEquals(32.0525, Double.parseDouble(yen.getTransferSell()), 1e-9);
+    }
+
+    @Test
+    void skipsIncompleteRowsAndMissingTables() {
+        String incomplete = """
+                <tr>
+                  <td class="currency-cell"><span class="currency-name">SWISS FRANC</span></td>
+                  <td class="banknote-cell"><table><tr><td>Buy</td><td>55.1</td></tr></table></td>
+                  <td class="transfer-cell"><table><tr><td>Buy</td><td>55.0</td></tr></table></td>
+                </tr>""";
+
+        List<ExchangeRate> rates = parser.parse(page(incomplete, row("EURO", "52.1", "52.4", "52.05", "52.3")), SCRAPED_AT);
+
+        assertEquals(List.of("EURO"), rates.stream().map(ExchangeRate::getCurrency).toList());
+        assertTrue(parser.parse("<html><body><p>Service unavailable</p></body></html>", SCRAPED_AT).isEmpty());
+    }
+}
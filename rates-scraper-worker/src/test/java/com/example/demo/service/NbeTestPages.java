@@ -0,0 +1,33 @@
+package com.example.demo.service;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Minimal copies of the NBE rates page, with the markup {@link NbeRatePageParser} reads.
+ */
+final class NbeTestPages {
+
+    private NbeTestPages() {
+    }
+
+    static String page(String... rows) {
+        return """
+                <html><body>
+                <table class="currency-table"><thead><tr><th>Currency</th><th>Banknote</th><th>Transfer</th></tr></thead>
+                <tbody>
+                %s
+                </tbody></table>
+                </body></html>
+                """.formatted(Arrays.stream(rows).collect(Collectors.joining("\n")));
+    }
+
+    static String row(String currency, String banknoteBuy, String banknoteSell, String transferBuy, String transferSell) {
+        return """
+                <tr>
+                  <td class="currency-cell"><img src="flag.png"><span class="currency-name">%s</span></td>
+                  <td class="banknote-cell"><table><tr><td>Buy</td><td>%s</td></tr><tr><td>Sell</td><td>%s</td></tr></table></td>
+                  <td class="transfer-cell"><table><tr><td>Buy</td><td>%s</td></tr><tr><td>Sell</td><td>%s</td></tr></table></td>
+                </tr>""".formatted(currency, banknoteBuy, banknoteSell, transferBuy, transferSell);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ArchivedPage;
+import com.example.demo.repository.ArchivedPageRepository;
+import com.example.demo.repository.PageFetchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.example.demo.service.NbeTestPages.page;
+import static com.example.demo.service.NbeTestPages.row;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageArchiveTest {
+
+    private static final LocalDateTime FETCHED_AT = LocalDateTime.of(2025, 10, 28, 16, 5);
+
+    private ConfigurableApplicationContext context;
+    private PageArchive archive;
+    private ArchivedPageRepository pages;
+    private PageFetchRepository fetches;
+
+    @BeforeEach
+    void start() {
+        context = new SpringApplicationBuilder(ArchiveTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:archive-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop")
+                .run();
+        archive = context.getBean(PageArchive.class);
+        pages = context.getBean(ArchivedPageRepository.class);
+        fetches = context.getBean(PageFetchRepository.class);
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void storesEachPageOnceAndEveryFetch() {
+        String usd = page(row("US DOLLAR", "48.45", "48.55", "48.40", "48.50"));
+        String eur = page(row("EURO", "52.10", "52.40", "52.05", "52.30"));
+
+        archive.store(usd, FETCHED_AT);
+        archive.store(usd, FETCHED_AT.plusMinutes(10));
+        archive.store(eur, FETCHED_AT.plusMinutes(20));
+
+        assertEquals(2, pages.count());
+        assertEquals(3, fetches.count());
+        ArchivedPage first = pages.findById(PageArchive.sha256(usd.getBytes(StandardCharsets.UTF_8))).orElseThrow();
+        assertEquals(FETCHED_AT, first.getFirstFetchedAt());
+    }
+
+    @Test
+    void roundTripsThroughGzip() {
+        String source = page(row("US DOLLAR", "48.45", "48.55", "48.40", "48.50").repeat(50) + "<p>جنيه مصري</p>");
+        archive.store(source, FETCHED_AT);
+
+        ArchivedPage stored = pages.findAll().get(0);
+        assertEquals(0x1f, stored.getContent()[0] & 0xff, "gzip magic");
+        assertEquals(0x8b, stored.getContent()[1] & 0xff, "gzip magic");
+        assertTrue(stored.getContent().length < stored.getOriginalSize() / 4);
+        assertEquals(source.getBytes(StandardCharsets.UTF_8).length, stored.getOriginalSize());
+        assertEquals(source, archive.load(stored));
+    }
+}
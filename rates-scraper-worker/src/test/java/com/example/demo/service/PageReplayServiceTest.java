@@ -0,0 +1,103 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExchangeRate;
+import com.example.demo.repository.ExchangeRateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.example.demo.service.NbeTestPages.page;
+import static com.example.demo.service.NbeTestPages.row;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PageReplayServiceTest {
+
+    private static final LocalDate ARCHIVED = LocalDate.of(2025, 10, 27);
+    private static final LocalDate NOT_ARCHIVED = ARCHIVED.plusDays(1);
+    private static final LocalDate UNPARSEABLE = ARCHIVED.plusDays(2);
+
+    private ConfigurableApplicationContext context;
+    private PageReplayService replay;
+    private ExchangeRateRepository rates;
+
+    @BeforeEach
+    void start() {
+        context = new SpringApplicationBuilder(ArchiveTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:replay-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "replay.parallelism=2",
+                        "replay.batch-size=2")
+                .run();
+        replay = context.getBean(PageReplayService.class);
+        rates = context.getBean(ExchangeRateRepository.class);
+        PageArchive archive = context.getBean(PageArchive.class);
+
+        rates.save(rate("US DOLLAR", "1.00", ARCHIVED.atTime(16, 5)));
+        rates.save(rate("US DOLLAR", "0.50", ARCHIVED.atTime(9, 0)));  // imported, no archived page
+        rates.save(rate("US DOLLAR", "1.00", NOT_ARCHIVED.atTime(16, 0)));
+        rates.save(rate("US DOLLAR", "1.00", UNPARSEABLE.atTime(16, 5)));
+        String fixed = page(row("US DOLLAR", "48.45", "48.55", "48.40", "48.50"),
+                row("EURO", "52.10", "52.40", "52.05", "52.30"));
+        archive.store(fixed, ARCHIVED.atTime(16, 5));
+        archive.store(fixed, ARCHIVED.atTime(18, 5));
+        archive.store("<html><body>maintenance</body></html>", UNPARSEABLE.atTime(16, 5));
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void dryRunOnlyCounts() {
+        Map<String, Object> result = replay.replay(ARCHIVED, UNPARSEABLE, true);
+
+        assertEquals(3, result.get("fetches"));
+        assertEquals(2, result.get("distinctPages"));
+        assertEquals(1, result.get("fetchesWithoutRates"));
+        assertEquals(1, result.get("daysToReplace"));
+        assertEquals(List.of(UNPARSEABLE), result.get("skippedDays"));
+        assertEquals(4, result.get("rowsGenerated"));
+        assertEquals(1L, result.get("rowsToDelete"));
+        assertEquals(List.of(ARCHIVED), result.get("daysWithUnarchivedRows"));
+        assertEquals(1L, result.get("rowsKept"));
+        assertEquals(0, result.get("rowsInserted"));
+        assertEquals(List.of("0.50", "1.00"), transferSells(ARCHIVED));
+        assertEquals(0, context.getBean(RateRevisions.class).current());
+    }
+
+    @Test
+    void replacesOnlyDaysWithParsedArchivedPages() {
+        Map<String, Object> result = replay.replay(ARCHIVED, UNPARSEABLE, false);
+
+        assertEquals(1, result.get("daysReplaced"));
+        assertEquals(1L, result.get("rowsDeleted"));
+        assertEquals(1L, result.get("rowsKept"));
+        assertEquals(4, result.get("rowsInserted"));
+        assertEquals(List.of("0.50", "48.50", "48.50", "52.30", "52.30"), transferSells(ARCHIVED),
+                "rows without an archived page survive the replay");
+        assertEquals(List.of("1.00"), transferSells(NOT_ARCHIVED), "day without archived pages is untouched");
+        assertEquals(List.of("1.00"), transferSells(UNPARSEABLE), "day whose pages parse to nothing keeps its rows");
+        assertEquals(1, context.getBean(RateRevisions.class).current());
+    }
+
+    private List<String> transferSells(LocalDate day) {
+        return rates.findByScrapedAtBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay()).stream()
+                .map(ExchangeRate::getTransferSell).sorted().toList();
+    }
+
+    private static ExchangeRate rate(String currency, String transferSell, LocalDateTime scrapedAt) {
+        return ExchangeRate.builder().currency(currency).transferSell(transferSell).transferBuy(transferSell)
+                .banknoteSell(transferSell).banknoteBuy(transferSell).scrapedAt(scrapedAt).build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RateHistoryImporterTest {
+
+    private final RateRevisions revisions = mock(RateRevisions.class);
+    private JdbcTemplate jdbc;
+    private RateHistoryImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:import-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbc.execute("CREATE TABLE EXCHANGE_RATE (ID BIGINT AUTO_INCREMENT PRIMARY KEY, CURRENCY VARCHAR(255), " +
+                "TRANSFER_SELL VARCHAR(255), TRANSFER_BUY VARCHAR(255), BANKNOTE_SELL VARCHAR(255), " +
+                "BANKNOTE_BUY VARCHAR(255), SCRAPED_AT TIMESTAMP)");
+        importer = new RateHistoryImporter(new ExchangeRateBatchInserter(jdbc), revisions, 2);
+    }
+
+    @Test
+    void importsCsvNormalizingCurrenciesAndSkippingDuplicates() throws Exception {
+        jdbc.update("INSERT INTO EXCHANGE_RATE (CURRENCY, TRANSFER_SELL, TRANSFER_BUY, BANKNOTE_SELL, BANKNOTE_BUY, SCRAPED_AT) " +
+                "VALUES ('EURO', '52.3', '52.1', '52.4', '52.0', TIMESTAMP '2024-01-02 16:00:00')");
+        String csv = """
+                date,currency,banknote_buy,banknote_sell,transfer_buy,transfer_sell
+                2024-01-02,USD,30.85,30.95,30.80,30.90
+                2024-01-02,"us  dollar",30.85,30.95,30.80,30.91
+                2024-01-02,EUR,33.6,33.9,33.5,33.8
+                2024-01-03,Euro,33.7,34.0,33.6,33.9
+                2024-01-03,CHINESE YUAN,4.3,4.4,4.3,4.4
+                not-a-date,USD,1,1,1,1
+                """;
+
+        Map<String, Object> result = importer.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(6L, result.get("rowsRead"));
+        assertEquals(2L, result.get("rowsInserted"));
+        assertEquals(2L, result.get("duplicatesSkipped"));
+        assertEquals(2L, result.get("rowsRejected"));
+        assertEquals(1L, result.get("unmappedCurrencies"));
+        verify(revisions).bump();
+        assertEquals(List.of("EURO", "US DOLLAR"), jdbc.queryForList(
+                "SELECT CURRENCY FROM EXCHANGE_RATE WHERE SCRAPED_AT >= TIMESTAMP '2024-01-02 00:00:00' " +
+                        "AND ID > 1 ORDER BY CURRENCY", String.class));
+        assertEquals("30.90", jdbc.queryForObject(
+                "SELECT TRANSFER_SELL FROM EXCHANGE_RATE WHERE CURRENCY = 'US DOLLAR'", String.class));
+    }
+
+    @Test
+    void rejectsValuesThatAreNotPlainDecimals() throws Exception {
+        String csv = """
+                date,currency,banknote_buy,banknote_sell,transfer_buy,transfer_sell
+                2024-01-02,USD,30.85,30.95,30.80,"30,90"
+                2024-01-02,EUR,N/A,33.9,33.5,33.8
+                2024-01-02,GBP,-39.0,39.4,38.9,39.3
+                2024-01-02,CHF,35,35.4,34.9,35.3
+                """;
+
+        Map<String, Object> result = importer.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1L, result.get("rowsInserted"));
+        assertEquals(3L, result.get("rowsRejected"));
+        assertEquals(List.of("line 2: transfersell is not a decimal: 30,90", "line 3: banknotebuy is not a decimal: N/A",
+                "line 4: banknotebuy is not a decimal: -39.0"), result.get("errors"));
+        assertEquals("SWISS FRANC", jdbc.queryForObject("SELECT CURRENCY FROM EXCHANGE_RATE", String.class));
+    }
+
+    @Test
+    void readsExistingKeysOnlyForTheDaysInAnUnsortedChunk() throws Exception {
+        JdbcTemplate spied = spy(jdbc);
+        RateHistoryImporter unsorted = new RateHistoryImporter(new ExchangeRateBatchInserter(spied), revisions, 3);
+        String csv = """
+                date,currency,banknote_buy,banknote_sell,transfer_buy,transfer_sell
+                2024-01-03,USD,30.85,30.95,30.80,30.90
+                2024-12-31,USD,49.0,49.2,48.9,49.1
+                2024-01-02,USD,30.80,30.90,30.75,30.85
+                """;
+
+        Map<String, Object> result = unsorted.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3L, result.get("rowsInserted"));
+        verify(spied, times(2)).query(anyString(), any(RowCallbackHandler.class), any(), any());
+        verify(spied).query(anyString(), any(RowCallbackHandler.class),
+                eq(Timestamp.valueOf("2024-01-02 00:00:00")), eq(Timestamp.valueOf("2024-01-04 00:00:00")));
+        verify(spied).query(anyString(), any(RowCallbackHandler.class),
+                eq(Timestamp.valueOf("2024-12-31 00:00:00")), eq(Timestamp.valueOf("2025-01-01 00:00:00")));
+    }
+
+    @Test
+    void importsJsonArray() throws Exception {
+        String json = """
+                [
+                  {"scrapedAt": "2024-02-01T16:30:00", "currency": "GBP", "banknoteBuy": "39.0",
+                   "banknoteSell": "39.4", "transferBuy": "38.9", "transferSell": "39.3", "source": {"file": "x"}},
+                  {"scrapedAt": "2024-02-01 17:00:00", "currency": "POUND STERLING", "banknoteBuy": "39.1",
+                   "banknoteSell": "39.5", "transferBuy": "39.0", "transferSell": "39.4"}
+                ]
+                """;
+
+        Map<String, Object> result = importer.importJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1L, result.get("rowsInserted"));
+        assertEquals(1L, result.get("duplicatesSkipped"));
+        assertEquals("POUND STERLING", jdbc.queryForObject("SELECT CURRENCY FROM EXCHANGE_RATE", String.class));
+    }
+
+    @Test
+    void splitsQuotedCsvCells() {
+        assertArrayEquals(new String[]{"a", "b, c", "say \"hi\"", ""},
+                RateHistoryImporter.splitCsv("a,\"b, c\",\"say \"\"hi\"\"\","));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScrapeSchedulePlannerTest {
+
+    private static final ZoneId CAIRO = ZoneId.of("Africa/Cairo");
+
+    // 2025-10-28 is a Tuesday, 2025-10-30 a Thursday
+    private static final LocalDate TUESDAY = LocalDate.of(2025, 10, 28);
+    private static final LocalDate THURSDAY = LocalDate.of(2025, 10, 30);
+    private static final List<String> SINKS = List.of("oracle", "as400");
+
+    private final ScrapeSchedulePlanner planner = new ScrapeSchedulePlanner(
+            CAIRO, LocalTime.of(16, 0), LocalTime.of(22, 0),
+            Duration.ofMinutes(10), Duration.ofHours(1), LocalTime.of(16, 40),
+            Set.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY), Set.of(LocalDate.of(2025, 11, 2)));
+
+    private static ZonedDateTime at(LocalDate date, int hour, int minute) {
+        return date.atTime(hour, minute).atZone(CAIRO);
+    }
+
+    @Test
+    void sleepsUntilWindowOpensInTheMorning() {
+        ScrapeDayState state = new ScrapeDayState(TUESDAY, SINKS);
+
+        assertEquals(at(TUESDAY, 16, 0), planner.nextWakeUp(state, at(TUESDAY, 9, 0)));
+    }
+
+    @Test
+    void pollsInsideWindowAndWakesForTheFailureAlert() {
+        ScrapeDayState state = new ScrapeDayState(TUESDAY, SINKS);
+
+        assertEquals(at(TUESDAY, 16, 10), planner.nextWakeUp(state, at(TUESDAY, 16, 0)));
+        assertEquals(at(TUESDAY, 16, 40), planner.nextWakeUp(state, at(TUESDAY, 16, 35)));
+    }
+
+    @Test
+    void backsOffAfterConsecutiveFailures() {
+        ScrapeDayState state = new ScrapeDayState(TUESDAY, SINKS);
+        state.setFailureAlertChecked(true);
+        state.setConsecutiveFailures(2);
+
+        assertEquals(at(TUESDAY, 17, 40), planner.nextWakeUp(state, at(TUESDAY, 17, 0)));
+
+        state.setConsecutiveFailures(10);
+        assertEquals(at(TUESDAY, 18, 0), planner.nextWakeUp(state, at(TUESDAY, 17, 0)));
+    }
+
+    @Test
+    void goesIdleOnceAllTargetsAreDone() {
+        ScrapeDayState state = new ScrapeDayState(TUESDAY, SINKS);
+        state.setScraped(true);
+        state.markPushed("oracle");
+        assertEquals(ScrapePhase.PARTIALLY_PUSHED, state.getPhase());
+        state.markPushed("as400");
+        state.setFailureAlertChecked(true);
+
+        assertEquals(ScrapePhase.DONE, state.getPhase());
+        assertEquals(at(TUESDAY.plusDays(1), 16, 0), planner.nextWakeUp(state, at(TUESDAY, 16, 50)));
+    }
+
+    @Test
+    void skipsWeekendsAndHolidays() {
+        ScrapeDayState state = new ScrapeDayState(THURSDAY, SINKS);
+        state.setFailureAlertChecked(true);
+
+        // Friday and Saturday are the weekend, Sunday 2025-11-02 is a configured holiday
+        assertEquals(at(LocalDate.of(2025, 11, 3), 16, 0), planner.nextWakeUp(state, at(THURSDAY, 21, 55)));
+    }
+}